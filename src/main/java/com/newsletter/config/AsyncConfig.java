@@ -1,22 +1,46 @@
 package com.newsletter.config;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
 
 @Configuration
+@Slf4j
 public class AsyncConfig implements AsyncConfigurer {
 
+    private static final int VIRTUAL_THREADS_MIN_JAVA_VERSION = 21;
+
+    @Value("${newsletter.dispatch.virtual-threads:true}")
+    private boolean virtualThreads;
+
+    /**
+     * Thread-per-task executor hosting the dispatch pipeline workers. Uses
+     * virtual threads when the runtime supports them; the number of
+     * concurrent SMTP sends is capped by the sender stage's worker count.
+     */
+    @Bean(name = "dispatchExecutor")
+    public SimpleAsyncTaskExecutor dispatchExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("newsletter-dispatch-");
+
+        if (virtualThreads) {
+            if (Runtime.version().feature() >= VIRTUAL_THREADS_MIN_JAVA_VERSION) {
+                executor.setVirtualThreads(true);
+            } else {
+                log.warn("Virtual threads require Java {}+, running on Java {}. Falling back to platform threads",
+                        VIRTUAL_THREADS_MIN_JAVA_VERSION, Runtime.version().feature());
+            }
+        }
+
+        return executor;
+    }
+
     @Override
     public Executor getAsyncExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(5);
-        executor.setMaxPoolSize(10);
-        executor.setQueueCapacity(100);
-        executor.setThreadNamePrefix("newsletter-async-");
-        executor.initialize();
-        return executor;
+        return dispatchExecutor();
     }
 }
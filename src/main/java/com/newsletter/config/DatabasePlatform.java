@@ -0,0 +1,32 @@
+package com.newsletter.config;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+/**
+ * Identifies the database behind the application's DataSource so hand-written
+ * SQL can use PostgreSQL features in production and their H2 equivalents in
+ * dev and test.
+ */
+@Component
+@Slf4j
+@Getter
+public class DatabasePlatform {
+
+    private final boolean postgres;
+
+    public DatabasePlatform(DataSource dataSource) {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            this.postgres = "PostgreSQL".equalsIgnoreCase(product);
+            log.info("Detected database platform: {}", product);
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Unable to determine database platform", e);
+        }
+    }
+}
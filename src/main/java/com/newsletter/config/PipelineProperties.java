@@ -0,0 +1,34 @@
+package com.newsletter.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-stage sizing of the dispatch pipeline ({@code newsletter.pipeline.*}).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "newsletter.pipeline")
+public class PipelineProperties {
+
+    private Stage reader = new Stage(2, 100);
+
+    private Stage renderer = new Stage(2, 1000);
+
+    private Stage sender = new Stage(200, 1000);
+
+    private Stage logWriter = new Stage(1, 1000);
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Stage {
+
+        private int parallelism;
+
+        private int queueCapacity;
+    }
+}
@@ -3,12 +3,14 @@ package com.newsletter.config;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 
 @Configuration
 @EnableWebSecurity
@@ -21,16 +23,21 @@ public class SecurityConfig {
             .sessionManagement(session ->
                 session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)
             )
+            .exceptionHandling(exceptions ->
+                exceptions.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED))
+            )
             .authorizeHttpRequests(auth -> auth
                 // Public read-only endpoints
                 .requestMatchers(HttpMethod.GET, "/api/topics/**").permitAll()
                 .requestMatchers(HttpMethod.POST, "/api/subscribers").permitAll()
                 .requestMatchers(HttpMethod.DELETE, "/api/subscribers/**").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/subscribers/unsubscribe").permitAll() // signed link
 
                 // Protected write endpoints (require authentication in production)
                 .requestMatchers(HttpMethod.POST, "/api/topics").permitAll()
                 .requestMatchers(HttpMethod.PUT, "/api/topics/**").permitAll()
                 .requestMatchers(HttpMethod.DELETE, "/api/topics/**").permitAll()
+                .requestMatchers("/api/content/*/email-logs/**").authenticated() // recipient addresses
                 .requestMatchers("/api/content/**").permitAll()
 
                 // All other requests require authentication
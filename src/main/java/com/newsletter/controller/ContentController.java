@@ -2,14 +2,23 @@ package com.newsletter.controller;
 
 import com.newsletter.dto.ApiResponse;
 import com.newsletter.dto.ContentDTO;
+import com.newsletter.dto.ContentSummaryDTO;
+import com.newsletter.dto.CursorPage;
 import com.newsletter.model.Content.ContentStatus;
 import com.newsletter.service.ContentService;
+import com.newsletter.service.ExportFormat;
+import com.newsletter.service.ExportService;
 import com.newsletter.service.NewsletterSchedulerService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -19,6 +28,7 @@ public class ContentController {
 
     private final ContentService contentService;
     private final NewsletterSchedulerService schedulerService;
+    private final ExportService exportService;
 
     @PostMapping
     public ResponseEntity<ApiResponse<ContentDTO>> createContent(@Valid @RequestBody ContentDTO contentDTO) {
@@ -28,9 +38,15 @@ public class ContentController {
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<ContentDTO>>> getAllContent() {
-        List<ContentDTO> contents = contentService.getAllContent();
-        return ResponseEntity.ok(ApiResponse.success("Content fetched successfully", contents));
+    public ResponseEntity<ApiResponse<List<ContentSummaryDTO>>> getAllContent(
+            @RequestParam(required = false) ContentStatus status,
+            @RequestParam(required = false) Long topicId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<ContentSummaryDTO> contents = contentService.getContent(status, topicId, from, to, cursor, limit);
+        return ResponseEntity.ok(ApiResponse.page("Content fetched successfully", contents));
     }
 
     @GetMapping("/{id}")
@@ -39,16 +55,35 @@ public class ContentController {
         return ResponseEntity.ok(ApiResponse.success("Content fetched successfully", content));
     }
 
+    @GetMapping("/{id}/email-logs/export")
+    public ResponseEntity<StreamingResponseBody> exportEmailLogs(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "csv") String format) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        StreamingResponseBody body = exportService.exportEmailLogs(id, exportFormat);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"content-" + id + "-email-logs." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
     @GetMapping("/topic/{topicId}")
-    public ResponseEntity<ApiResponse<List<ContentDTO>>> getContentByTopic(@PathVariable Long topicId) {
-        List<ContentDTO> contents = contentService.getContentByTopicId(topicId);
-        return ResponseEntity.ok(ApiResponse.success("Content fetched successfully", contents));
+    public ResponseEntity<ApiResponse<List<ContentSummaryDTO>>> getContentByTopic(
+            @PathVariable Long topicId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<ContentSummaryDTO> contents = contentService.getContent(null, topicId, null, null, cursor, limit);
+        return ResponseEntity.ok(ApiResponse.page("Content fetched successfully", contents));
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<ApiResponse<List<ContentDTO>>> getContentByStatus(@PathVariable ContentStatus status) {
-        List<ContentDTO> contents = contentService.getContentByStatus(status);
-        return ResponseEntity.ok(ApiResponse.success("Content fetched successfully", contents));
+    public ResponseEntity<ApiResponse<List<ContentSummaryDTO>>> getContentByStatus(
+            @PathVariable ContentStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<ContentSummaryDTO> contents = contentService.getContent(status, null, null, null, cursor, limit);
+        return ResponseEntity.ok(ApiResponse.page("Content fetched successfully", contents));
     }
 
     @PutMapping("/{id}")
@@ -0,0 +1,34 @@
+package com.newsletter.controller;
+
+import com.newsletter.dto.ApiResponse;
+import com.newsletter.dto.CacheStatsDTO;
+import com.newsletter.dto.StageStatsDTO;
+import com.newsletter.service.DispatchPipeline;
+import com.newsletter.service.TopicCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/metrics")
+@RequiredArgsConstructor
+public class MetricsController {
+
+    private final DispatchPipeline dispatchPipeline;
+    private final TopicCache topicCache;
+
+    @GetMapping("/pipeline")
+    public ResponseEntity<ApiResponse<List<StageStatsDTO>>> pipelineStats() {
+        List<StageStatsDTO> stats = dispatchPipeline.stats();
+        return ResponseEntity.ok(ApiResponse.success("Pipeline stats fetched successfully", stats));
+    }
+
+    @GetMapping("/topic-cache")
+    public ResponseEntity<ApiResponse<CacheStatsDTO>> topicCacheStats() {
+        CacheStatsDTO stats = topicCache.stats();
+        return ResponseEntity.ok(ApiResponse.success("Topic cache stats fetched successfully", stats));
+    }
+}
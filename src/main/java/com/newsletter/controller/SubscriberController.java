@@ -1,13 +1,25 @@
 package com.newsletter.controller;
 
 import com.newsletter.dto.ApiResponse;
+import com.newsletter.dto.CursorPage;
+import com.newsletter.dto.ImportResultDTO;
 import com.newsletter.dto.SubscriberDTO;
+import com.newsletter.service.ExportFormat;
+import com.newsletter.service.ExportService;
+import com.newsletter.service.SubscriberImportService;
 import com.newsletter.service.SubscriberService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -16,6 +28,8 @@ import java.util.List;
 public class SubscriberController {
 
     private final SubscriberService subscriberService;
+    private final SubscriberImportService subscriberImportService;
+    private final ExportService exportService;
 
     @PostMapping
     public ResponseEntity<ApiResponse<SubscriberDTO>> createSubscriber(
@@ -25,10 +39,38 @@ public class SubscriberController {
                 .body(ApiResponse.success("Subscriber created successfully", createdSubscriber));
     }
 
+    @PostMapping(value = "/import",
+                 consumes = {SubscriberImportService.CSV, SubscriberImportService.NDJSON})
+    public ResponseEntity<ApiResponse<ImportResultDTO>> importSubscribers(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestParam(required = false) Long topicId,
+            InputStream body) throws IOException {
+        ImportResultDTO result = subscriberImportService.importSubscribers(body, contentType, topicId);
+        return ResponseEntity.ok(ApiResponse.success("Subscriber import completed", result));
+    }
+
     @GetMapping
-    public ResponseEntity<ApiResponse<List<SubscriberDTO>>> getAllSubscribers() {
-        List<SubscriberDTO> subscribers = subscriberService.getAllSubscribers();
-        return ResponseEntity.ok(ApiResponse.success("Subscribers fetched successfully", subscribers));
+    public ResponseEntity<ApiResponse<List<SubscriberDTO>>> getAllSubscribers(
+            @RequestParam(required = false) Long topicId,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<SubscriberDTO> subscribers = subscriberService.getSubscribers(topicId, active, from, to, cursor, limit);
+        return ResponseEntity.ok(ApiResponse.page("Subscribers fetched successfully", subscribers));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportSubscribers(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) Long topicId) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"subscribers." + exportFormat.getExtension() + "\"")
+                .body(exportService.exportSubscribers(topicId, exportFormat));
     }
 
     @GetMapping("/{id}")
@@ -38,9 +80,12 @@ public class SubscriberController {
     }
 
     @GetMapping("/topic/{topicId}")
-    public ResponseEntity<ApiResponse<List<SubscriberDTO>>> getSubscribersByTopic(@PathVariable Long topicId) {
-        List<SubscriberDTO> subscribers = subscriberService.getSubscribersByTopicId(topicId);
-        return ResponseEntity.ok(ApiResponse.success("Subscribers fetched successfully", subscribers));
+    public ResponseEntity<ApiResponse<List<SubscriberDTO>>> getSubscribersByTopic(
+            @PathVariable Long topicId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<SubscriberDTO> subscribers = subscriberService.getSubscribersByTopicId(topicId, cursor, limit);
+        return ResponseEntity.ok(ApiResponse.page("Subscribers fetched successfully", subscribers));
     }
 
     @PutMapping("/{id}")
@@ -51,6 +96,15 @@ public class SubscriberController {
         return ResponseEntity.ok(ApiResponse.success("Subscriber updated successfully", updatedSubscriber));
     }
 
+    /**
+     * Target of the unsubscribe link in newsletters, opened without logging in.
+     */
+    @GetMapping("/unsubscribe")
+    public ResponseEntity<ApiResponse<Void>> unsubscribeWithToken(@RequestParam String token) {
+        subscriberService.unsubscribeWithToken(token);
+        return ResponseEntity.ok(ApiResponse.success("Unsubscribed successfully", null));
+    }
+
     @PatchMapping("/{id}/unsubscribe")
     public ResponseEntity<ApiResponse<Void>> unsubscribe(@PathVariable Long id) {
         subscriberService.unsubscribe(id);
@@ -1,6 +1,7 @@
 package com.newsletter.controller;
 
 import com.newsletter.dto.ApiResponse;
+import com.newsletter.dto.CursorPage;
 import com.newsletter.dto.TopicDTO;
 import com.newsletter.service.TopicService;
 import jakarta.validation.Valid;
@@ -25,9 +26,11 @@ public class TopicController {
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<TopicDTO>>> getAllTopics() {
-        List<TopicDTO> topics = topicService.getAllTopics();
-        return ResponseEntity.ok(ApiResponse.success("Topics fetched successfully", topics));
+    public ResponseEntity<ApiResponse<List<TopicDTO>>> getAllTopics(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<TopicDTO> topics = topicService.getTopics(cursor, limit);
+        return ResponseEntity.ok(ApiResponse.page("Topics fetched successfully", topics));
     }
 
     @GetMapping("/{id}")
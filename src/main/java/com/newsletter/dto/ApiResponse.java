@@ -1,9 +1,11 @@
 package com.newsletter.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -15,6 +17,13 @@ public class ApiResponse<T> {
     private T data;
     private LocalDateTime timestamp;
 
+    /**
+     * Opaque cursor for the next page of a listing; absent on the last page
+     * and on non-list responses.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
     public ApiResponse(boolean success, String message, T data) {
         this.success = success;
         this.message = message;
@@ -26,6 +35,12 @@ public class ApiResponse<T> {
         return new ApiResponse<>(true, message, data);
     }
 
+    public static <T> ApiResponse<List<T>> page(String message, CursorPage<T> page) {
+        ApiResponse<List<T>> response = new ApiResponse<>(true, message, page.items());
+        response.setNextCursor(page.nextCursor());
+        return response;
+    }
+
     public static <T> ApiResponse<T> error(String message) {
         return new ApiResponse<>(false, message, null);
     }
@@ -0,0 +1,25 @@
+package com.newsletter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsDTO {
+
+    private String cache;
+
+    private int size;
+
+    private int capacity;
+
+    private long hits;
+
+    private long misses;
+
+    private long evictions;
+
+    private double hitRate;
+}
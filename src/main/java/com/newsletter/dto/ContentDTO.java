@@ -1,12 +1,16 @@
 package com.newsletter.dto;
 
 import com.newsletter.model.Content.ContentStatus;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
+import java.util.Set;
 
 @Data
 @NoArgsConstructor
@@ -26,9 +30,21 @@ public class ContentDTO {
 
     private String topicName;
 
+    @Size(max = 20, message = "At most 20 additional topics are allowed")
+    private Set<Long> additionalTopicIds;
+
+    @Size(max = 1000, message = "Segment must be at most 1000 characters")
+    private String segment;
+
     @NotNull(message = "Scheduled time is required")
     private LocalDateTime scheduledTime;
 
+    private Boolean localDelivery;
+
+    @Min(value = 1, message = "Send window must be at least 1 minute")
+    @Max(value = 1440, message = "Send window must be at most 1440 minutes")
+    private Integer sendWindowMinutes;
+
     private ContentStatus status;
 
     private LocalDateTime sentAt;
@@ -0,0 +1,9 @@
+package com.newsletter.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * When a scheduled content is due, read to load the content timer at startup.
+ */
+public record ContentSchedule(Long contentId, LocalDateTime scheduledTime, Boolean localDelivery) {
+}
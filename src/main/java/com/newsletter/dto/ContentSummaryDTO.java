@@ -0,0 +1,31 @@
+package com.newsletter.dto;
+
+import com.newsletter.model.Content.ContentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Content as shown in listings: everything but the body, read straight from
+ * the query without loading the entity.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentSummaryDTO {
+
+    private Long id;
+
+    private String subject;
+
+    private Long topicId;
+
+    private String topicName;
+
+    private LocalDateTime scheduledTime;
+
+    private ContentStatus status;
+
+    private LocalDateTime sentAt;
+}
@@ -0,0 +1,12 @@
+package com.newsletter.dto;
+
+/**
+ * A subscriber row read for a digest send, with the topic it belongs to so
+ * rows sharing an email address can be matched to their contents.
+ */
+public record DigestRecipient(Long subscriberId, String email, String name, Long topicId) {
+
+    public Recipient toRecipient() {
+        return new Recipient(subscriberId, email, name);
+    }
+}
@@ -0,0 +1,22 @@
+package com.newsletter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResultDTO {
+
+    private long processed;
+
+    private long imported;
+
+    private long failed;
+
+    private List<ImportErrorDTO> errors;
+
+    private boolean errorsTruncated;
+}
@@ -0,0 +1,7 @@
+package com.newsletter.dto;
+
+/**
+ * Minimal, unmanaged view of a subscriber that a send needs.
+ */
+public record Recipient(Long subscriberId, String email, String name) {
+}
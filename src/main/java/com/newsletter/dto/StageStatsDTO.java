@@ -0,0 +1,23 @@
+package com.newsletter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StageStatsDTO {
+
+    private String stage;
+
+    private int parallelism;
+
+    private int queueDepth;
+
+    private int queueCapacity;
+
+    private int active;
+
+    private long processed;
+}
@@ -0,0 +1,12 @@
+package com.newsletter.dto;
+
+import com.newsletter.model.Subscriber.EngagementTier;
+import java.time.LocalDateTime;
+
+/**
+ * The segmentation attributes and time zone of an active subscriber, read
+ * to build the segment index. Tags are read separately as {@link SubscriberTag} rows.
+ */
+public record SubscriberAttributes(Long subscriberId, Long topicId, String locale, String timeZone,
+                                   EngagementTier engagementTier, LocalDateTime subscribedAt) {
+}
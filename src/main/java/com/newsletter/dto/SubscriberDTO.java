@@ -2,10 +2,14 @@ package com.newsletter.dto;
 
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
+import com.newsletter.model.Subscriber.EngagementTier;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import java.util.Set;
 
 @Data
 @NoArgsConstructor
@@ -27,4 +31,28 @@ public class SubscriberDTO {
     private String topicName;
 
     private Boolean active;
+
+    @Pattern(regexp = "[A-Za-z]{2,3}([-_][A-Za-z0-9]{2,8})*", message = "Locale must be a language tag such as en or pt-BR")
+    private String locale;
+
+    private String timeZone;
+
+    private EngagementTier engagementTier;
+
+    @Size(max = 20, message = "At most 20 tags are allowed")
+    private Set<@Pattern(regexp = "[A-Za-z0-9][A-Za-z0-9_-]{0,49}",
+            message = "Tags are letters, digits, '-' and '_', at most 50 characters") String> tags;
+
+    /**
+     * Listing projection. Segmentation attributes are only filled in when a
+     * single subscriber is read.
+     */
+    public SubscriberDTO(Long id, String name, String email, Long topicId, String topicName, Boolean active) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.topicId = topicId;
+        this.topicName = topicName;
+        this.active = active;
+    }
 }
@@ -0,0 +1,4 @@
+package com.newsletter.dto;
+
+public record SubscriberTag(Long subscriberId, String tag) {
+}
@@ -3,37 +3,116 @@ package com.newsletter.model;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
 
 @Entity
-@Table(name = "contents")
+@Table(name = "contents",
+       indexes = {
+           @Index(name = "idx_contents_topic_id", columnList = "topic_id, id"),
+           @Index(name = "idx_contents_status_id", columnList = "status, id")
+       })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Content {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contents_seq")
+    @SequenceGenerator(name = "contents_seq", sequenceName = "contents_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
     private String subject;
 
     @Column(nullable = false, columnDefinition = "TEXT")
+    @Convert(converter = ContentBodyConverter.class)
     private String body;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "topic_id", nullable = false)
     private Topic topic;
 
+    /**
+     * Topics the content goes to besides {@link #topic}. Anyone subscribed
+     * to more than one of them receives it once.
+     */
+    @ElementCollection
+    @CollectionTable(name = "content_topics", joinColumns = @JoinColumn(name = "content_id"),
+                     indexes = @Index(name = "idx_content_topics_topic_id", columnList = "topic_id"))
+    @Column(name = "topic_id", nullable = false)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Set<Long> additionalTopicIds = new HashSet<>();
+
+    /**
+     * Optional {@link com.newsletter.service.SegmentExpression} narrowing the
+     * topic's audience; null sends to every active subscriber of the topic.
+     */
+    @Column(length = 1000)
+    private String segment;
+
     @Column(name = "scheduled_time", nullable = false)
     private LocalDateTime scheduledTime;
 
+    /**
+     * Deliver at {@link #scheduledTime} in each subscriber's own time zone,
+     * one UTC-offset bucket at a time.
+     */
+    @Column(name = "local_delivery", nullable = false)
+    private Boolean localDelivery = false;
+
+    /**
+     * For local delivery, the UTC offset in seconds at and above which
+     * buckets have been dispatched. Null for other content.
+     */
+    @Column(name = "bucket_cursor")
+    private Integer bucketCursor;
+
+    /**
+     * Minutes to spread the send over, so a large audience goes out at a
+     * steady rate. Null sends as fast as the pipeline allows.
+     */
+    @Column(name = "send_window_minutes")
+    private Integer sendWindowMinutes;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private ContentStatus status = ContentStatus.SCHEDULED;
 
+    /**
+     * Whether the send in progress was enqueued in the outbox, whose poll
+     * completes it. Sends through the local pipeline complete themselves.
+     */
+    @Column(name = "via_outbox", nullable = false)
+    private Boolean viaOutbox = false;
+
+    /**
+     * When the send in progress was last enqueued in the outbox. A send
+     * window is measured from here, so it survives node restarts.
+     */
+    @Column(name = "enqueued_at")
+    private LocalDateTime enqueuedAt;
+
+    /**
+     * The node that claimed the send in progress, as its
+     * {@link com.newsletter.service.NodeIdentity}.
+     */
+    @Column(name = "claimed_by")
+    private String claimedBy;
+
+    /**
+     * Renewed by the node sending the content through its local pipeline.
+     * A SENDING content whose heartbeat has lapsed is resumed by the
+     * scheduler leader.
+     */
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+
     @Column(name = "sent_at")
     private LocalDateTime sentAt;
 
@@ -56,6 +135,7 @@ public class Content {
 
     public enum ContentStatus {
         SCHEDULED,
+        SENDING,
         SENT,
         FAILED,
         CANCELLED
@@ -0,0 +1,76 @@
+package com.newsletter.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.beans.factory.annotation.Value;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Stores large content bodies gzipped and Base64-encoded behind a
+ * {@value #PREFIX} marker, and inflates them again on load. Bodies below the
+ * threshold, bodies that do not shrink, and every body written while
+ * compression is off are stored as plain text, so existing rows and mixed
+ * rows read back unchanged. A plain body that happens to start with the
+ * marker is always compressed, which keeps the marker unambiguous.
+ */
+@Converter
+public class ContentBodyConverter implements AttributeConverter<String, String> {
+
+    static final String PREFIX = "gzip:";
+
+    private final boolean enabled;
+    private final int minLength;
+
+    public ContentBodyConverter(@Value("${newsletter.content.compression.enabled:false}") boolean enabled,
+                                @Value("${newsletter.content.compression.min-length:4096}") int minLength) {
+        this.enabled = enabled;
+        this.minLength = minLength;
+    }
+
+    @Override
+    public String convertToDatabaseColumn(String body) {
+        if (body == null) {
+            return null;
+        }
+        boolean markerClash = body.startsWith(PREFIX);
+        if (!markerClash && (!enabled || body.length() < minLength)) {
+            return body;
+        }
+
+        String compressed = PREFIX + Base64.getEncoder().encodeToString(gzip(body));
+        return markerClash || compressed.length() < body.length() ? compressed : body;
+    }
+
+    @Override
+    public String convertToEntityAttribute(String column) {
+        if (column == null || !column.startsWith(PREFIX)) {
+            return column;
+        }
+        return gunzip(Base64.getDecoder().decode(column.substring(PREFIX.length())));
+    }
+
+    private static byte[] gzip(String body) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length() / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String gunzip(byte[] compressed) {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
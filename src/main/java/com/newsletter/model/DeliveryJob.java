@@ -0,0 +1,61 @@
+package com.newsletter.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "delivery_jobs",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"content_id", "subscriber_id"}),
+       indexes = {
+           @Index(name = "idx_delivery_jobs_content_status", columnList = "content_id, status"),
+           @Index(name = "idx_delivery_jobs_content_claimed_at", columnList = "content_id, claimed_at")
+       })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeliveryJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "content_id", nullable = false)
+    private Long contentId;
+
+    @Column(name = "subscriber_id", nullable = false)
+    private Long subscriberId;
+
+    @Column(name = "recipient_email", nullable = false)
+    private String recipientEmail;
+
+    @Column(name = "recipient_name", nullable = false)
+    private String recipientName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private DeliveryJobStatus status = DeliveryJobStatus.PENDING;
+
+    @Column(name = "claimed_by")
+    private String claimedBy;
+
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public enum DeliveryJobStatus {
+        PENDING,
+        CLAIMED,
+        SENT,
+        FAILED
+    }
+}
@@ -7,14 +7,18 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "email_logs")
+@Table(name = "email_logs",
+       uniqueConstraints = @UniqueConstraint(name = "uk_email_logs_content_subscriber",
+                                             columnNames = {"content_id", "subscriber_id"}),
+       indexes = @Index(name = "idx_email_logs_status_next_attempt", columnList = "status, next_attempt_at"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class EmailLog {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "email_logs_seq")
+    @SequenceGenerator(name = "email_logs_seq", sequenceName = "email_logs_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -38,6 +42,12 @@ public class EmailLog {
     @Column(name = "sent_at", nullable = false)
     private LocalDateTime sentAt;
 
+    private Integer attempts;
+
+    /** When a RETRY row is next due; pushed forward while a node holds it. */
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
     @PrePersist
     protected void onCreate() {
         sentAt = LocalDateTime.now();
@@ -3,19 +3,25 @@ package com.newsletter.model;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
 
 @Entity
 @Table(name = "subscribers",
-       uniqueConstraints = @UniqueConstraint(columnNames = {"email", "topic_id"}))
+       uniqueConstraints = @UniqueConstraint(columnNames = {"email", "topic_id"}),
+       indexes = @Index(name = "idx_subscribers_topic_id", columnList = "topic_id, id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Subscriber {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "subscribers_seq")
+    @SequenceGenerator(name = "subscribers_seq", sequenceName = "subscribers_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -31,6 +37,27 @@ public class Subscriber {
     @Column(nullable = false)
     private Boolean active = true;
 
+    @Column(length = 35)
+    private String locale;
+
+    /**
+     * IANA time zone for local-time delivery; null means the server's zone.
+     */
+    @Column(name = "time_zone", length = 64)
+    private String timeZone;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "engagement_tier")
+    private EngagementTier engagementTier;
+
+    @ElementCollection
+    @CollectionTable(name = "subscriber_tags", joinColumns = @JoinColumn(name = "subscriber_id"),
+                     indexes = @Index(name = "idx_subscriber_tags_subscriber_id", columnList = "subscriber_id"))
+    @Column(name = "tag", nullable = false, length = 50)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Set<String> tags = new HashSet<>();
+
     @Column(name = "subscribed_at", nullable = false, updatable = false)
     private LocalDateTime subscribedAt;
 
@@ -47,4 +74,10 @@ public class Subscriber {
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
     }
+
+    public enum EngagementTier {
+        HIGH,
+        MEDIUM,
+        LOW
+    }
 }
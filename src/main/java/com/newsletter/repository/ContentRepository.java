@@ -1,20 +1,137 @@
 package com.newsletter.repository;
 
+import com.newsletter.dto.ContentSchedule;
+import com.newsletter.dto.ContentSummaryDTO;
 import com.newsletter.model.Content;
 import com.newsletter.model.Content.ContentStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ContentRepository extends JpaRepository<Content, Long> {
 
-    @Query("SELECT c FROM Content c WHERE c.status = :status AND c.scheduledTime <= :currentTime")
-    List<Content> findDueContent(ContentStatus status, LocalDateTime currentTime);
+    /**
+     * Content due at {@code currentTime}. Local-time content is due once its
+     * scheduled time has been reached in the earliest zone.
+     */
+    @Query("SELECT c FROM Content c WHERE c.status = :status AND (c.scheduledTime <= :currentTime " +
+           "OR (c.localDelivery = true AND c.scheduledTime <= :currentTimeInEarliestZone))")
+    List<Content> findDueContent(ContentStatus status, LocalDateTime currentTime,
+                                 LocalDateTime currentTimeInEarliestZone);
 
     List<Content> findByStatus(ContentStatus status);
 
+    @Query("SELECT c FROM Content c JOIN FETCH c.topic WHERE c.status IN :statuses AND c.viaOutbox = true")
+    List<Content> findByStatusInViaOutboxWithTopic(Collection<ContentStatus> statuses);
+
     List<Content> findByTopicId(Long topicId);
+
+    @Query("SELECT DISTINCT c.topic.id FROM Content c WHERE c.status = :status")
+    List<Long> findTopicIdsByStatus(ContentStatus status);
+
+    @Query("SELECT DISTINCT t FROM Content c JOIN c.additionalTopicIds t WHERE c.status = :status")
+    List<Long> findAdditionalTopicIdsByStatus(ContentStatus status);
+
+    @Modifying
+    @Query(value = "DELETE FROM content_topics WHERE topic_id = :topicId", nativeQuery = true)
+    int removeAdditionalTopic(Long topicId);
+
+    /**
+     * One keyset page of content summaries, newest first. Null filters match
+     * everything; a topic matches content that goes to it as either its own or
+     * an additional topic. The body column is never read.
+     */
+    @Query("SELECT new com.newsletter.dto.ContentSummaryDTO(c.id, c.subject, t.id, t.name, " +
+           "c.scheduledTime, c.status, c.sentAt) " +
+           "FROM Content c JOIN c.topic t WHERE c.id < :beforeId " +
+           "AND (:status IS NULL OR c.status = :status) " +
+           "AND (:topicId IS NULL OR t.id = :topicId OR :topicId MEMBER OF c.additionalTopicIds) " +
+           "AND (:from IS NULL OR c.scheduledTime >= :from) " +
+           "AND (:to IS NULL OR c.scheduledTime < :to) " +
+           "ORDER BY c.id DESC")
+    List<ContentSummaryDTO> findSummaryPageBefore(Long beforeId, ContentStatus status, Long topicId,
+                                                  LocalDateTime from, LocalDateTime to, Pageable pageable);
+
+    @Query("SELECT new com.newsletter.dto.ContentSchedule(c.id, c.scheduledTime, c.localDelivery) " +
+           "FROM Content c WHERE c.status = :status")
+    List<ContentSchedule> findScheduleByStatus(ContentStatus status);
+
+    @Query("SELECT c FROM Content c JOIN FETCH c.topic LEFT JOIN FETCH c.additionalTopicIds WHERE c.id = :id")
+    Optional<Content> findByIdWithTopic(Long id);
+
+    @Modifying
+    @Query("UPDATE Content c SET c.viaOutbox = true, c.enqueuedAt = :now WHERE c.id = :id")
+    int markViaOutbox(Long id, LocalDateTime now);
+
+    /**
+     * Moves content to SENDING and starts its heartbeat, only if it is still
+     * in the expected status. Returns 1 for the single caller that wins the
+     * claim.
+     */
+    @Modifying
+    @Query("UPDATE Content c SET c.status = :sending, c.claimedBy = :nodeId, c.heartbeatAt = :now, " +
+           "c.updatedAt = :now WHERE c.id = :id AND c.status = :from")
+    int claimForSending(Long id, ContentStatus from, ContentStatus sending, String nodeId, LocalDateTime now);
+
+    /**
+     * Renews the heartbeat of the node's own sends; a send another node has
+     * taken over is left alone.
+     */
+    @Modifying
+    @Query("UPDATE Content c SET c.heartbeatAt = :now " +
+           "WHERE c.id IN :ids AND c.status = :status AND c.claimedBy = :nodeId")
+    int renewHeartbeats(Collection<Long> ids, ContentStatus status, String nodeId, LocalDateTime now);
+
+    /**
+     * Sends through a node's local pipeline whose heartbeat lapsed before the
+     * cutoff. Content claimed before heartbeats were recorded has none.
+     */
+    @Query("SELECT c FROM Content c JOIN FETCH c.topic WHERE c.status = :status AND c.viaOutbox = false " +
+           "AND (c.heartbeatAt IS NULL OR c.heartbeatAt < :cutoff)")
+    List<Content> findStaleSends(ContentStatus status, LocalDateTime cutoff);
+
+    /**
+     * The stale sends claimed by the given node.
+     */
+    @Query("SELECT c FROM Content c JOIN FETCH c.topic WHERE c.status = :status AND c.viaOutbox = false " +
+           "AND c.claimedBy = :claimedBy AND (c.heartbeatAt IS NULL OR c.heartbeatAt < :cutoff)")
+    List<Content> findStaleSendsClaimedBy(ContentStatus status, String claimedBy, LocalDateTime cutoff);
+
+    /**
+     * Takes over a stale send for the node, only if it is still stale.
+     * Returns 1 for the single caller that wins it.
+     */
+    @Modifying
+    @Query("UPDATE Content c SET c.claimedBy = :nodeId, c.heartbeatAt = :now WHERE c.id = :id " +
+           "AND c.status = :status AND c.viaOutbox = false AND (c.heartbeatAt IS NULL OR c.heartbeatAt < :cutoff)")
+    int takeOverStaleSend(Long id, ContentStatus status, LocalDateTime cutoff, String nodeId, LocalDateTime now);
+
+    /**
+     * Moves content from one status to another only if it is still in the
+     * expected status, recording when it was sent and releasing it from the
+     * outbox. Returns 1 for the single caller that wins the transition.
+     */
+    @Modifying
+    @Query("UPDATE Content c SET c.status = :to, c.sentAt = :sentAt, c.viaOutbox = false, c.updatedAt = :now " +
+           "WHERE c.id = :id AND c.status = :from")
+    int transitionStatus(Long id, ContentStatus from, ContentStatus to, LocalDateTime sentAt, LocalDateTime now);
+
+    /**
+     * Claims the buckets of local-time content between the current and the
+     * new cursor, optionally changing its status. Returns 0 if another node
+     * moved the cursor first.
+     */
+    @Modifying
+    @Query("UPDATE Content c SET c.status = :to, c.bucketCursor = :newCursor, c.claimedBy = :nodeId, " +
+           "c.heartbeatAt = :now, c.updatedAt = :now " +
+           "WHERE c.id = :id AND c.status = :from AND c.bucketCursor = :cursor")
+    int advanceBucketCursor(Long id, Integer cursor, Integer newCursor, ContentStatus from, ContentStatus to,
+                            String nodeId, LocalDateTime now);
 }
@@ -0,0 +1,83 @@
+package com.newsletter.repository;
+
+import com.newsletter.model.DeliveryJob;
+import com.newsletter.model.DeliveryJob.DeliveryJobStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DeliveryJobRepository extends JpaRepository<DeliveryJob, Long> {
+
+    /**
+     * Fills the outbox with one PENDING job per active subscriber of the topic
+     * in a single set-based statement. Recipients that already have a job or a
+     * successful delivery for this content are skipped, so enqueueing twice is
+     * harmless.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO delivery_jobs (content_id, subscriber_id, recipient_email, recipient_name, status, created_at) " +
+                   "SELECT :contentId, s.id, s.email, s.name, 'PENDING', CURRENT_TIMESTAMP FROM subscribers s " +
+                   "WHERE s.topic_id = :topicId AND s.active = true " +
+                   "AND NOT EXISTS (SELECT 1 FROM delivery_jobs d WHERE d.content_id = :contentId AND d.subscriber_id = s.id) " +
+                   "AND NOT EXISTS (SELECT 1 FROM email_logs l WHERE l.content_id = :contentId AND l.subscriber_id = s.id " +
+                   "AND l.status = 'SUCCESS')",
+           nativeQuery = true)
+    int enqueueAudience(Long contentId, Long topicId);
+
+    /**
+     * Like {@link #enqueueAudience}, for the active subscribers among the
+     * given ids (a segmented or multi-topic audience).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO delivery_jobs (content_id, subscriber_id, recipient_email, recipient_name, status, created_at) " +
+                   "SELECT :contentId, s.id, s.email, s.name, 'PENDING', CURRENT_TIMESTAMP FROM subscribers s " +
+                   "WHERE s.id IN (:subscriberIds) AND s.active = true " +
+                   "AND NOT EXISTS (SELECT 1 FROM delivery_jobs d WHERE d.content_id = :contentId AND d.subscriber_id = s.id) " +
+                   "AND NOT EXISTS (SELECT 1 FROM email_logs l WHERE l.content_id = :contentId AND l.subscriber_id = s.id " +
+                   "AND l.status = 'SUCCESS')",
+           nativeQuery = true)
+    int enqueueSubscribers(Long contentId, Collection<Long> subscriberIds);
+
+    /**
+     * Puts the failed jobs of a re-driven content back in the queue; jobs that
+     * were sent are left alone.
+     */
+    @Modifying
+    @Query("UPDATE DeliveryJob j SET j.status = :pending, j.claimedBy = NULL, j.claimedAt = NULL " +
+           "WHERE j.contentId = :contentId AND j.status = :failed")
+    int requeueFailed(Long contentId, DeliveryJobStatus failed, DeliveryJobStatus pending);
+
+    /**
+     * Locks a batch of claimable jobs, skipping rows another node has locked
+     * (rendered as {@code FOR UPDATE SKIP LOCKED} on PostgreSQL).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT j FROM DeliveryJob j WHERE j.contentId = :contentId AND j.status = :status ORDER BY j.id")
+    List<DeliveryJob> findClaimable(Long contentId, DeliveryJobStatus status, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE DeliveryJob j SET j.status = :status, j.claimedBy = :claimedBy, j.claimedAt = :claimedAt WHERE j.id IN :ids")
+    int markClaimed(Collection<Long> ids, DeliveryJobStatus status, String claimedBy, LocalDateTime claimedAt);
+
+    @Modifying
+    @Query("UPDATE DeliveryJob j SET j.status = :pending, j.claimedBy = NULL, j.claimedAt = NULL " +
+           "WHERE j.status = :claimed AND j.claimedAt < :cutoff")
+    int releaseExpiredClaims(DeliveryJobStatus pending, DeliveryJobStatus claimed, LocalDateTime cutoff);
+
+    long countByContentIdAndStatus(Long contentId, DeliveryJobStatus status);
+
+    long countByContentIdAndClaimedAtGreaterThanEqual(Long contentId, LocalDateTime since);
+
+    long countByContentIdAndStatusIn(Long contentId, Collection<DeliveryJobStatus> statuses);
+}
@@ -2,8 +2,17 @@ package com.newsletter.repository;
 
 import com.newsletter.model.EmailLog;
 import com.newsletter.model.EmailLog.EmailStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -11,4 +20,23 @@ public interface EmailLogRepository extends JpaRepository<EmailLog, Long> {
     List<EmailLog> findByContentId(Long contentId);
     List<EmailLog> findByStatus(EmailStatus status);
     List<EmailLog> findBySubscriberId(Long subscriberId);
+    boolean existsByContentIdAndStatus(Long contentId, EmailStatus status);
+
+    /**
+     * Locks a batch of retries that are due, skipping rows another node has
+     * locked (rendered as {@code FOR UPDATE SKIP LOCKED} on PostgreSQL).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT l FROM EmailLog l WHERE l.status = :status AND l.nextAttemptAt <= :now ORDER BY l.nextAttemptAt")
+    List<EmailLog> findDueForRetry(EmailStatus status, LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE EmailLog l SET l.nextAttemptAt = :until WHERE l.id IN :ids")
+    int deferRetries(Collection<Long> ids, LocalDateTime until);
+
+    @Modifying
+    @Query("UPDATE EmailLog l SET l.status = :status, l.errorMessage = :errorMessage, l.nextAttemptAt = NULL " +
+           "WHERE l.id IN :ids")
+    int abandonRetries(Collection<Long> ids, EmailStatus status, String errorMessage);
 }
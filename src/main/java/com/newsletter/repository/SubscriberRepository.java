@@ -2,8 +2,18 @@ package com.newsletter.repository;
 
 import com.newsletter.model.Subscriber;
 import com.newsletter.model.Topic;
+import com.newsletter.dto.DigestRecipient;
+import com.newsletter.dto.Recipient;
+import com.newsletter.dto.SubscriberAttributes;
+import com.newsletter.dto.SubscriberDTO;
+import com.newsletter.dto.SubscriberTag;
+import com.newsletter.service.AudienceChecksum;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,4 +23,59 @@ public interface SubscriberRepository extends JpaRepository<Subscriber, Long> {
     Optional<Subscriber> findByEmailAndTopic(String email, Topic topic);
     boolean existsByEmailAndTopic(String email, Topic topic);
     List<Subscriber> findByEmail(String email);
+    long countByTopicIdInAndActiveTrue(Collection<Long> topicIds);
+
+    @Query("SELECT s FROM Subscriber s JOIN FETCH s.topic LEFT JOIN FETCH s.tags WHERE s.id = :id")
+    Optional<Subscriber> findByIdWithTopic(Long id);
+
+    /**
+     * One keyset page of subscribers, newest first, read straight into DTOs.
+     * Null filters match everything.
+     */
+    @Query("SELECT new com.newsletter.dto.SubscriberDTO(s.id, s.name, s.email, t.id, t.name, s.active) " +
+           "FROM Subscriber s JOIN s.topic t WHERE s.id < :beforeId " +
+           "AND (:topicId IS NULL OR t.id = :topicId) " +
+           "AND (:active IS NULL OR s.active = :active) " +
+           "AND (:from IS NULL OR s.subscribedAt >= :from) " +
+           "AND (:to IS NULL OR s.subscribedAt < :to) " +
+           "ORDER BY s.id DESC")
+    List<SubscriberDTO> findPageBefore(Long beforeId, Long topicId, Boolean active,
+                                       LocalDateTime from, LocalDateTime to, Pageable pageable);
+
+    @Query("SELECT new com.newsletter.dto.Recipient(s.id, s.email, s.name) FROM Subscriber s " +
+           "WHERE s.topic.id = :topicId AND s.active = true AND s.id > :lastId ORDER BY s.id")
+    List<Recipient> findActiveRecipientsByTopicIdAfter(Long topicId, Long lastId, Pageable pageable);
+
+    @Query("SELECT new com.newsletter.dto.DigestRecipient(s.id, s.email, s.name, s.topic.id) FROM Subscriber s " +
+           "WHERE s.topic.id IN :topicIds AND s.active = true " +
+           "AND (s.email > :lastEmail OR (s.email = :lastEmail AND s.id > :lastId)) ORDER BY s.email, s.id")
+    List<DigestRecipient> findActiveDigestRecipientsAfter(Collection<Long> topicIds, String lastEmail, Long lastId,
+                                                          Pageable pageable);
+
+    @Query("SELECT new com.newsletter.dto.DigestRecipient(s.id, s.email, s.name, s.topic.id) FROM Subscriber s " +
+           "WHERE s.id = :id AND s.active = true")
+    Optional<DigestRecipient> findActiveRecipientWithTopic(Long id);
+
+    @Query("SELECT new com.newsletter.service.AudienceChecksum(COUNT(s), SUM(s.id), " +
+           "SUM(LENGTH(s.email) + LENGTH(s.name))) FROM Subscriber s WHERE s.topic.id = :topicId AND s.active = true")
+    AudienceChecksum audienceChecksum(Long topicId);
+
+    @Query("SELECT new com.newsletter.dto.SubscriberAttributes(s.id, s.topic.id, s.locale, s.timeZone, " +
+           "s.engagementTier, s.subscribedAt) FROM Subscriber s WHERE s.active = true AND s.id > :lastId ORDER BY s.id")
+    List<SubscriberAttributes> findActiveAttributesAfter(Long lastId, Pageable pageable);
+
+    @Query("SELECT new com.newsletter.dto.SubscriberTag(s.id, t) FROM Subscriber s JOIN s.tags t " +
+           "WHERE s.active = true AND s.id > :afterId AND s.id <= :upToId")
+    List<SubscriberTag> findActiveTagsBetween(Long afterId, Long upToId);
+
+    @Query("SELECT new com.newsletter.dto.SubscriberAttributes(s.id, s.topic.id, s.locale, s.timeZone, " +
+           "s.engagementTier, s.subscribedAt) FROM Subscriber s WHERE s.id = :id AND s.active = true")
+    Optional<SubscriberAttributes> findActiveAttributes(Long id);
+
+    @Query("SELECT t FROM Subscriber s JOIN s.tags t WHERE s.id = :id")
+    List<String> findTagsBySubscriberId(Long id);
+
+    @Query("SELECT new com.newsletter.dto.Recipient(s.id, s.email, s.name) FROM Subscriber s " +
+           "WHERE s.id IN :ids AND s.active = true ORDER BY s.id")
+    List<Recipient> findActiveRecipientsByIdIn(Collection<Long> ids);
 }
@@ -1,12 +1,18 @@
 package com.newsletter.repository;
 
 import com.newsletter.model.Topic;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TopicRepository extends JpaRepository<Topic, Long> {
     Optional<Topic> findByName(String name);
     boolean existsByName(String name);
+
+    @Query("SELECT t FROM Topic t WHERE t.id < :beforeId ORDER BY t.id DESC")
+    List<Topic> findPageBefore(Long beforeId, Pageable pageable);
 }
@@ -0,0 +1,14 @@
+package com.newsletter.service;
+
+/**
+ * Cheap fingerprint of a topic's active audience: row count, sum of ids and
+ * total email plus name length. Adds, removals and most edits change it.
+ */
+public record AudienceChecksum(Long count, Long idSum, Long lengthSum) {
+
+    public AudienceChecksum {
+        count = count == null ? 0L : count;
+        idSum = idSum == null ? 0L : idSum;
+        lengthSum = lengthSum == null ? 0L : lengthSum;
+    }
+}
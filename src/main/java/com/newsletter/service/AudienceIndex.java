@@ -0,0 +1,236 @@
+package com.newsletter.service;
+
+import com.newsletter.dto.DigestRecipient;
+import com.newsletter.dto.Recipient;
+import com.newsletter.model.Content.ContentStatus;
+import com.newsletter.repository.ContentRepository;
+import com.newsletter.repository.SubscriberRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory audience of each topic, so fan-out reads recipients from a
+ * {@link TopicAudience} instead of scanning {@code subscribers}. A topic's
+ * audience is built from the database the first time it is needed (and at
+ * startup for topics with scheduled content), then kept current from
+ * {@link InvalidationBus} events: a subscriber invalidation re-reads that
+ * one row and applies it, and an audience invalidation (bulk imports, topic
+ * deletes) drops the topic so it is rebuilt on next use. Events apply in
+ * order on a single background thread.
+ * <p>
+ * Subscribers changed while a topic is being built are re-read once the
+ * build is installed. A build that overlaps an audience invalidation serves
+ * the send that asked for it but is not kept. A periodic reconciliation
+ * compares each audience's {@link AudienceChecksum} with the database and
+ * rebuilds any that drifted.
+ */
+@Component
+@Slf4j
+public class AudienceIndex {
+
+    private final SubscriberRepository subscriberRepository;
+    private final ContentRepository contentRepository;
+    @Getter
+    private final boolean enabled;
+    private final int chunkSize;
+
+    private final Map<Long, TopicAudience> audiences = new ConcurrentHashMap<>();
+    private final Map<Long, Object> buildLocks = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> changedDuringBuild = new ConcurrentHashMap<>();
+    private final AtomicLong drops = new AtomicLong();
+    private final ExecutorService updater;
+
+    public AudienceIndex(SubscriberRepository subscriberRepository,
+                         ContentRepository contentRepository,
+                         InvalidationBus invalidationBus,
+                         @Value("${newsletter.audience-index.enabled:true}") boolean enabled,
+                         @Value("${newsletter.dispatch.chunk-size:500}") int chunkSize) {
+        this.subscriberRepository = subscriberRepository;
+        this.contentRepository = contentRepository;
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+        this.updater = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "audience-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        if (enabled) {
+            invalidationBus.subscribe(InvalidationBus.SUBSCRIBER, new InvalidationBus.Listener() {
+                @Override
+                public void invalidate(Long subscriberId) {
+                    updater.execute(() -> refreshSubscriber(subscriberId));
+                }
+
+                @Override
+                public void invalidateAll() {
+                    dropAll();
+                }
+            });
+            invalidationBus.subscribe(InvalidationBus.AUDIENCE, new InvalidationBus.Listener() {
+                @Override
+                public void invalidate(Long topicId) {
+                    drop(topicId);
+                }
+
+                @Override
+                public void invalidateAll() {
+                    dropAll();
+                }
+            });
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+        updater.execute(() -> {
+            Set<Long> topicIds = new LinkedHashSet<>(contentRepository.findTopicIdsByStatus(ContentStatus.SCHEDULED));
+            topicIds.addAll(contentRepository.findAdditionalTopicIdsByStatus(ContentStatus.SCHEDULED));
+            topicIds.forEach(this::audience);
+            log.info("Built audience index for {} topics with scheduled content", topicIds.size());
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        updater.shutdownNow();
+    }
+
+    public AudienceSource forTopic(Long topicId) {
+        return handler -> {
+            TopicAudience audience = audience(topicId);
+            long lastId = 0L;
+            long total = 0L;
+
+            while (true) {
+                List<Recipient> chunk = audience.after(lastId, chunkSize);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+
+                handler.accept(chunk);
+
+                lastId = chunk.get(chunk.size() - 1).subscriberId();
+                total += chunk.size();
+                if (chunk.size() < chunkSize) {
+                    break;
+                }
+            }
+
+            log.debug("Streamed {} indexed recipients for topic ID: {}", total, topicId);
+            return total;
+        };
+    }
+
+    /**
+     * Compares every built audience with the database and rebuilds those
+     * whose checksum differs.
+     */
+    @Scheduled(fixedDelayString = "${newsletter.audience-index.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        for (Map.Entry<Long, TopicAudience> entry : audiences.entrySet()) {
+            Long topicId = entry.getKey();
+            AudienceChecksum expected = subscriberRepository.audienceChecksum(topicId);
+            AudienceChecksum actual = entry.getValue().checksum();
+            if (!expected.equals(actual)) {
+                log.warn("Audience index for topic ID: {} drifted (database: {}, index: {}), rebuilding",
+                        topicId, expected, actual);
+                drop(topicId);
+                audience(topicId);
+            }
+        }
+    }
+
+    TopicAudience audience(Long topicId) {
+        TopicAudience audience = audiences.get(topicId);
+        if (audience != null) {
+            return audience;
+        }
+        synchronized (buildLocks.computeIfAbsent(topicId, id -> new Object())) {
+            audience = audiences.get(topicId);
+            return audience != null ? audience : build(topicId);
+        }
+    }
+
+    private TopicAudience build(Long topicId) {
+        Set<Long> changed = ConcurrentHashMap.newKeySet();
+        changedDuringBuild.put(topicId, changed);
+        long dropsAtStart = drops.get();
+
+        TopicAudience audience = new TopicAudience(chunkSize);
+        try {
+            long lastId = 0L;
+            while (true) {
+                List<Recipient> chunk = subscriberRepository.findActiveRecipientsByTopicIdAfter(
+                        topicId, lastId, PageRequest.of(0, chunkSize));
+                chunk.forEach(recipient -> audience.put(recipient.subscriberId(), recipient.email(), recipient.name()));
+                if (chunk.size() < chunkSize) {
+                    break;
+                }
+                lastId = chunk.get(chunk.size() - 1).subscriberId();
+            }
+
+            if (drops.get() == dropsAtStart) {
+                audiences.put(topicId, audience);
+            }
+        } finally {
+            changedDuringBuild.remove(topicId);
+        }
+
+        changed.forEach(id -> updater.execute(() -> refreshSubscriber(id)));
+        log.info("Built audience index for topic ID: {} with {} recipients", topicId, audience.size());
+        return audience;
+    }
+
+    private void refreshSubscriber(Long subscriberId) {
+        changedDuringBuild.values().forEach(changed -> changed.add(subscriberId));
+        if (audiences.isEmpty()) {
+            return;
+        }
+
+        try {
+            Optional<DigestRecipient> row = subscriberRepository.findActiveRecipientWithTopic(subscriberId);
+            if (row.isPresent()) {
+                TopicAudience audience = audiences.get(row.get().topicId());
+                if (audience != null) {
+                    audience.put(subscriberId, row.get().email(), row.get().name());
+                }
+            } else {
+                audiences.values().forEach(audience -> audience.remove(subscriberId));
+            }
+        } catch (Exception e) {
+            log.error("Failed to refresh subscriber ID: {} in the audience index, dropping all audiences. Error: {}",
+                    subscriberId, e.getMessage(), e);
+            dropAll();
+        }
+    }
+
+    private void drop(Long topicId) {
+        drops.incrementAndGet();
+        audiences.remove(topicId);
+    }
+
+    private void dropAll() {
+        drops.incrementAndGet();
+        audiences.clear();
+    }
+}
@@ -0,0 +1,240 @@
+package com.newsletter.service;
+
+import com.newsletter.dto.DigestRecipient;
+import com.newsletter.dto.Recipient;
+import com.newsletter.model.Content;
+import com.newsletter.repository.SubscriberRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.LongIterator;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Streams the active audience of a topic in fixed-size keyset chunks
+ * ({@code id > lastId}) so a send never holds the whole audience in memory.
+ * Rows are read as {@link Recipient} projections, so nothing is left managed
+ * in a persistence context between chunks. When the {@link AudienceIndex} is
+ * enabled, single-topic audiences are served from it instead.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AudienceReader {
+
+    private final SubscriberRepository subscriberRepository;
+    private final AudienceIndex audienceIndex;
+    private final SegmentIndex segmentIndex;
+
+    @Value("${newsletter.dispatch.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * The audience of a content: its whole topic, or the part of it its
+     * segment selects. Content with additional topics goes to the union of
+     * their audiences, once per email address.
+     */
+    public AudienceSource forContent(Content content) {
+        List<Long> topicIds = topicIds(content);
+        String segment = content.getSegment();
+        List<AudienceSource> sources = topicIds.stream()
+                .map(topicId -> segment == null ? forTopic(topicId) : forSegment(topicId, segment))
+                .toList();
+        return sources.size() == 1 ? sources.get(0) : deduplicated(sources, topicIds);
+    }
+
+    /**
+     * The number of recipients the content's audience holds, for pacing its
+     * send. Topics are counted separately, so anyone subscribed to several
+     * of a content's topics is counted once per topic.
+     */
+    public long countAudience(Content content) {
+        List<Long> topicIds = topicIds(content);
+        if (content.getSegment() == null) {
+            return subscriberRepository.countByTopicIdInAndActiveTrue(topicIds);
+        }
+        SegmentExpression expression = SegmentExpression.parse(content.getSegment());
+        return topicIds.stream()
+                .mapToLong(topicId -> segmentIndex.select(topicId, expression).getLongCardinality())
+                .sum();
+    }
+
+    private static List<Long> topicIds(Content content) {
+        List<Long> topicIds = new ArrayList<>();
+        topicIds.add(content.getTopic().getId());
+        content.getAdditionalTopicIds().stream().sorted().forEach(topicIds::add);
+        return topicIds;
+    }
+
+    /**
+     * Reads the sources one after another and passes each email address
+     * through only the first time it appears. Seen addresses are kept as
+     * hashes in an {@link EmailHashSet}, not as strings.
+     */
+    private AudienceSource deduplicated(List<AudienceSource> sources, List<Long> topicIds) {
+        return handler -> {
+            EmailHashSet seen = new EmailHashSet(chunkSize);
+            long read = 0;
+
+            for (AudienceSource source : sources) {
+                read += source.forEachChunk(chunk -> {
+                    List<Recipient> unique = new ArrayList<>(chunk.size());
+                    for (Recipient recipient : chunk) {
+                        if (seen.add(recipient.email())) {
+                            unique.add(recipient);
+                        }
+                    }
+                    if (!unique.isEmpty()) {
+                        handler.accept(unique);
+                    }
+                });
+            }
+
+            log.debug("Read {} recipients across topic IDs: {}, {} after removing duplicate emails",
+                    read, topicIds, seen.size());
+            return seen.size();
+        };
+    }
+
+    public AudienceSource forTopic(Long topicId) {
+        if (audienceIndex.isEnabled()) {
+            return audienceIndex.forTopic(topicId);
+        }
+        return handler -> forEachChunk(topicId, handler);
+    }
+
+    /**
+     * Hands each chunk of active recipients to the handler in turn.
+     *
+     * @return the total number of recipients read
+     */
+    public long forEachChunk(Long topicId, Consumer<List<Recipient>> handler) {
+        long lastId = 0L;
+        long total = 0L;
+
+        while (true) {
+            List<Recipient> chunk = subscriberRepository.findActiveRecipientsByTopicIdAfter(
+                    topicId, lastId, PageRequest.of(0, chunkSize));
+
+            if (chunk.isEmpty()) {
+                break;
+            }
+
+            handler.accept(chunk);
+
+            lastId = chunk.get(chunk.size() - 1).subscriberId();
+            total += chunk.size();
+            log.debug("Streamed {} recipients for topic ID: {} (last ID: {})", total, topicId, lastId);
+
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+        }
+
+        return total;
+    }
+
+    /**
+     * Resolves the segment to subscriber ids when the send starts, then
+     * loads recipients for the ids a chunk at a time.
+     */
+    public AudienceSource forSegment(Long topicId, String segment) {
+        SegmentExpression expression = SegmentExpression.parse(segment);
+        return handler -> {
+            Roaring64NavigableMap subscriberIds = segmentIndex.select(topicId, expression);
+            log.debug("Segment '{}' of topic ID: {} selected {} subscribers",
+                    expression, topicId, subscriberIds.getLongCardinality());
+            return forEachIdChunk(subscriberIds, handler);
+        };
+    }
+
+    private long forEachIdChunk(Roaring64NavigableMap subscriberIds, Consumer<List<Recipient>> handler) {
+        LongIterator iterator = subscriberIds.getLongIterator();
+        long total = 0;
+
+        while (iterator.hasNext()) {
+            List<Long> ids = new ArrayList<>(chunkSize);
+            while (iterator.hasNext() && ids.size() < chunkSize) {
+                ids.add(iterator.next());
+            }
+
+            // Subscribers unsubscribed since the segment was resolved drop out here
+            List<Recipient> chunk = subscriberRepository.findActiveRecipientsByIdIn(ids);
+            if (!chunk.isEmpty()) {
+                handler.accept(chunk);
+                total += chunk.size();
+            }
+        }
+        return total;
+    }
+
+    public DigestAudienceSource forTopics(Collection<Long> topicIds) {
+        return handler -> forEachEmailChunk(topicIds, handler);
+    }
+
+    /**
+     * Streams the active subscribers of several topics ordered by email, in
+     * keyset chunks on {@code (email, id)}. Rows sharing an email address are
+     * never split across chunks: a chunk's trailing address is held back and
+     * handed over with the next one.
+     *
+     * @return the total number of subscriber rows read
+     */
+    public long forEachEmailChunk(Collection<Long> topicIds, Consumer<List<DigestRecipient>> handler) {
+        String lastEmail = "";
+        long lastId = 0L;
+        long total = 0L;
+        List<DigestRecipient> carried = new ArrayList<>();
+
+        while (true) {
+            List<DigestRecipient> page = subscriberRepository.findActiveDigestRecipientsAfter(
+                    topicIds, lastEmail, lastId, PageRequest.of(0, chunkSize));
+
+            if (page.isEmpty()) {
+                break;
+            }
+
+            DigestRecipient tail = page.get(page.size() - 1);
+            lastEmail = tail.email();
+            lastId = tail.subscriberId();
+            boolean more = page.size() == chunkSize;
+
+            List<DigestRecipient> ready = new ArrayList<>(carried.size() + page.size());
+            ready.addAll(carried);
+            ready.addAll(page);
+            carried = new ArrayList<>();
+
+            if (more) {
+                int cut = ready.size();
+                while (cut > 0 && ready.get(cut - 1).email().equals(lastEmail)) {
+                    cut--;
+                }
+                carried.addAll(ready.subList(cut, ready.size()));
+                ready = new ArrayList<>(ready.subList(0, cut));
+            }
+
+            if (!ready.isEmpty()) {
+                handler.accept(ready);
+                total += ready.size();
+            }
+
+            if (!more) {
+                break;
+            }
+        }
+
+        if (!carried.isEmpty()) {
+            handler.accept(carried);
+            total += carried.size();
+        }
+
+        log.debug("Streamed {} digest recipients for topic IDs: {}", total, topicIds);
+        return total;
+    }
+}
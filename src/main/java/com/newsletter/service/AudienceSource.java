@@ -0,0 +1,56 @@
+package com.newsletter.service;
+
+import com.newsletter.dto.Recipient;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongPredicate;
+
+/**
+ * Supplies the recipients of a dispatch job in chunks.
+ */
+@FunctionalInterface
+public interface AudienceSource {
+
+    /**
+     * Hands each chunk of recipients to the handler in turn.
+     *
+     * @return the total number of recipients supplied
+     */
+    long forEachChunk(Consumer<List<Recipient>> handler);
+
+    /**
+     * Called with recipients the pipeline skipped because the content was
+     * already delivered to them.
+     */
+    default void alreadyDelivered(List<Recipient> recipients) {
+    }
+
+    /**
+     * Whether the source holds recipients back to spread a send over time.
+     * Such a source is read on its own thread rather than a reader worker.
+     */
+    default boolean isPaced() {
+        return false;
+    }
+
+    /**
+     * This source restricted to the subscriber ids the predicate accepts.
+     */
+    default AudienceSource filter(LongPredicate include) {
+        AudienceSource source = this;
+        return handler -> {
+            AtomicLong total = new AtomicLong();
+            source.forEachChunk(chunk -> {
+                List<Recipient> kept = chunk.stream()
+                        .filter(recipient -> include.test(recipient.subscriberId()))
+                        .toList();
+                if (!kept.isEmpty()) {
+                    handler.accept(kept);
+                    total.addAndGet(kept.size());
+                }
+            });
+            return total.get();
+        };
+    }
+}
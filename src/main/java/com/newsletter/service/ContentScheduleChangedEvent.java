@@ -0,0 +1,17 @@
+package com.newsletter.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when content is scheduled, rescheduled or cancelled. A null
+ * scheduled time means the content should no longer fire.
+ */
+public record ContentScheduleChangedEvent(Long contentId, LocalDateTime scheduledTime) {
+
+    /**
+     * Local-time content fires when its first bucket comes due.
+     */
+    public ContentScheduleChangedEvent(Long contentId, LocalDateTime scheduledTime, Boolean localDelivery) {
+        this(contentId, LocalTimeBuckets.fireTime(scheduledTime, localDelivery));
+    }
+}
@@ -1,18 +1,24 @@
 package com.newsletter.service;
 
 import com.newsletter.dto.ContentDTO;
+import com.newsletter.dto.ContentSummaryDTO;
+import com.newsletter.dto.CursorPage;
 import com.newsletter.model.Content;
 import com.newsletter.model.Content.ContentStatus;
-import com.newsletter.model.Topic;
+import com.newsletter.model.EmailLog.EmailStatus;
 import com.newsletter.repository.ContentRepository;
+import com.newsletter.repository.EmailLogRepository;
 import com.newsletter.repository.TopicRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
@@ -20,13 +26,17 @@ import java.util.stream.Collectors;
 public class ContentService {
 
     private final ContentRepository contentRepository;
+    private final EmailLogRepository emailLogRepository;
     private final TopicRepository topicRepository;
+    private final CursorPager cursorPager;
+    private final TopicCache topicCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public ContentDTO createContent(ContentDTO contentDTO) {
         log.info("Creating content for topic ID: {}", contentDTO.getTopicId());
 
-        Topic topic = topicRepository.findById(contentDTO.getTopicId())
+        TopicCache.CachedTopic cachedTopic = topicCache.findById(contentDTO.getTopicId())
                 .orElseThrow(() -> new IllegalArgumentException("Topic not found with ID: " + contentDTO.getTopicId()));
 
         if (contentDTO.getScheduledTime().isBefore(LocalDateTime.now())) {
@@ -36,68 +46,91 @@ public class ContentService {
         Content content = new Content();
         content.setSubject(contentDTO.getSubject());
         content.setBody(contentDTO.getBody());
-        content.setTopic(topic);
+        content.setTopic(topicRepository.getReferenceById(cachedTopic.id()));
+        content.setAdditionalTopicIds(additionalTopicIds(cachedTopic.id(), contentDTO.getAdditionalTopicIds()));
+        content.setSegment(SegmentExpression.canonical(contentDTO.getSegment()));
         content.setScheduledTime(contentDTO.getScheduledTime());
+        content.setLocalDelivery(Boolean.TRUE.equals(contentDTO.getLocalDelivery()));
+        content.setBucketCursor(content.getLocalDelivery() ? LocalTimeBuckets.NONE_SENT : null);
+        content.setSendWindowMinutes(contentDTO.getSendWindowMinutes());
         content.setStatus(ContentStatus.SCHEDULED);
 
         Content savedContent = contentRepository.save(content);
+        eventPublisher.publishEvent(new ContentScheduleChangedEvent(
+                savedContent.getId(), savedContent.getScheduledTime(), savedContent.getLocalDelivery()));
         log.info("Content created successfully with ID: {}", savedContent.getId());
 
-        return convertToDTO(savedContent);
+        return convertToDTO(savedContent, cachedTopic.name());
     }
 
     @Transactional(readOnly = true)
-    public List<ContentDTO> getAllContent() {
-        log.info("Fetching all content");
-        return contentRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public CursorPage<ContentSummaryDTO> getContent(ContentStatus status, Long topicId, LocalDateTime from,
+                                                    LocalDateTime to, String cursor, Integer limit) {
+        log.info("Fetching content. Status: {}, Topic ID: {}, From: {}, To: {}", status, topicId, from, to);
+        CursorPager.checkRange(from, to);
+        return cursorPager.page(cursor, limit,
+                (beforeId, pageable) -> contentRepository.findSummaryPageBefore(
+                        beforeId, status, topicId, from, to, pageable),
+                ContentSummaryDTO::getId,
+                Function.identity());
     }
 
     @Transactional(readOnly = true)
     public ContentDTO getContentById(Long id) {
         log.info("Fetching content by ID: {}", id);
-        Content content = contentRepository.findById(id)
+        Content content = contentRepository.findByIdWithTopic(id)
                 .orElseThrow(() -> new IllegalArgumentException("Content not found with ID: " + id));
         return convertToDTO(content);
     }
 
-    @Transactional(readOnly = true)
-    public List<ContentDTO> getContentByTopicId(Long topicId) {
-        log.info("Fetching content for topic ID: {}", topicId);
-        return contentRepository.findByTopicId(topicId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-    }
-
-    @Transactional(readOnly = true)
-    public List<ContentDTO> getContentByStatus(ContentStatus status) {
-        log.info("Fetching content by status: {}", status);
-        return contentRepository.findByStatus(status).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-    }
 
     @Transactional
     public ContentDTO updateContent(Long id, ContentDTO contentDTO) {
         log.info("Updating content ID: {}", id);
 
-        Content content = contentRepository.findById(id)
+        Content content = contentRepository.findByIdWithTopic(id)
                 .orElseThrow(() -> new IllegalArgumentException("Content not found with ID: " + id));
 
         if (content.getStatus() == ContentStatus.SENT) {
             throw new IllegalArgumentException("Cannot update content that has already been sent");
         }
 
+        if (content.getStatus() == ContentStatus.SENDING) {
+            throw new IllegalArgumentException("Cannot update content that is being sent");
+        }
+
         content.setSubject(contentDTO.getSubject());
         content.setBody(contentDTO.getBody());
+        content.getAdditionalTopicIds().clear();
+        content.getAdditionalTopicIds().addAll(
+                additionalTopicIds(content.getTopic().getId(), contentDTO.getAdditionalTopicIds()));
+        content.setSegment(SegmentExpression.canonical(contentDTO.getSegment()));
+        content.setSendWindowMinutes(contentDTO.getSendWindowMinutes());
 
+        LocalDateTime previousTime = content.getScheduledTime();
+        Boolean previousLocalDelivery = content.getLocalDelivery();
         if (contentDTO.getScheduledTime() != null &&
                 contentDTO.getScheduledTime().isAfter(LocalDateTime.now())) {
             content.setScheduledTime(contentDTO.getScheduledTime());
         }
+        if (contentDTO.getLocalDelivery() != null) {
+            content.setLocalDelivery(contentDTO.getLocalDelivery());
+        }
+
+        // A new time or mode starts the buckets over; recipients already
+        // reached are skipped by the dispatch's delivered-recipient check
+        if (!content.getLocalDelivery()) {
+            content.setBucketCursor(null);
+        } else if (!content.getLocalDelivery().equals(previousLocalDelivery)
+                || !content.getScheduledTime().equals(previousTime)) {
+            content.setBucketCursor(LocalTimeBuckets.NONE_SENT);
+        }
 
         Content updatedContent = contentRepository.save(content);
+        if (updatedContent.getStatus() == ContentStatus.SCHEDULED) {
+            eventPublisher.publishEvent(new ContentScheduleChangedEvent(
+                    updatedContent.getId(), updatedContent.getScheduledTime(), updatedContent.getLocalDelivery()));
+        }
         log.info("Content updated successfully");
 
         return convertToDTO(updatedContent);
@@ -114,8 +147,13 @@ public class ContentService {
             throw new IllegalArgumentException("Cannot cancel content that has already been sent");
         }
 
+        if (content.getStatus() == ContentStatus.SENDING) {
+            throw new IllegalArgumentException("Cannot cancel content that is being sent");
+        }
+
         content.setStatus(ContentStatus.CANCELLED);
         contentRepository.save(content);
+        eventPublisher.publishEvent(new ContentScheduleChangedEvent(id, null));
 
         log.info("Content cancelled successfully");
     }
@@ -129,6 +167,7 @@ public class ContentService {
         }
 
         contentRepository.deleteById(id);
+        eventPublisher.publishEvent(new ContentScheduleChangedEvent(id, null));
         log.info("Content deleted successfully");
     }
 
@@ -136,17 +175,103 @@ public class ContentService {
     public List<Content> getDueContent() {
         LocalDateTime now = LocalDateTime.now();
         log.info("Fetching due content for time: {}", now);
-        return contentRepository.findDueContent(ContentStatus.SCHEDULED, now);
+        return contentRepository.findDueContent(ContentStatus.SCHEDULED, now, LocalTimeBuckets.nowInEarliestZone());
+    }
+
+    /**
+     * Records the outcome of a finished dispatch. Content is marked FAILED
+     * only when no recipient received it; for local-time content the result
+     * is the last bucket's, so earlier buckets are checked in the log. The
+     * status only moves out of SENDING, so a dispatch that finishes after
+     * the content was completed or taken over elsewhere changes nothing.
+     */
+    @Transactional
+    public void completeDispatch(DispatchResult result) {
+        Content content = contentRepository.findById(result.contentId())
+                .orElseThrow(() -> new IllegalArgumentException("Content not found with ID: " + result.contentId()));
+        LocalDateTime now = LocalDateTime.now();
+
+        if (result.succeeded() == 0 && result.skipped() == 0 && result.failed() > 0
+                && !(content.getLocalDelivery()
+                     && emailLogRepository.existsByContentIdAndStatus(content.getId(), EmailStatus.SUCCESS))) {
+            if (transition(content.getId(), ContentStatus.SENDING, ContentStatus.FAILED, null, now)) {
+                log.error("Newsletter failed for every recipient. Content ID: {}, Failed: {}",
+                        content.getId(), result.failed());
+            }
+        } else if (transition(content.getId(), ContentStatus.SENDING, ContentStatus.SENT, now, now)) {
+            log.info("Newsletter sent successfully. Content ID: {}, Success: {}, Failed: {}, Already delivered: {}",
+                    content.getId(), result.succeeded(), result.failed(), result.skipped());
+        }
+    }
+
+    /**
+     * Records the outcome of a retry batch. Content that failed for every
+     * recipient is marked SENT once a retry gets through.
+     */
+    @Transactional
+    public void completeRetry(DispatchResult result) {
+        if (result.succeeded() == 0) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (contentRepository.transitionStatus(
+                result.contentId(), ContentStatus.FAILED, ContentStatus.SENT, now, now) > 0) {
+            log.info("Retries delivered previously failed content ID: {} to {} recipients",
+                    result.contentId(), result.succeeded());
+        }
+    }
+
+    @Transactional
+    public void failDispatch(Long contentId) {
+        transition(contentId, ContentStatus.SENDING, ContentStatus.FAILED, null, LocalDateTime.now());
+    }
+
+    private boolean transition(Long contentId, ContentStatus from, ContentStatus to, LocalDateTime sentAt,
+                               LocalDateTime now) {
+        if (contentRepository.transitionStatus(contentId, from, to, sentAt, now) == 0) {
+            log.warn("Content ID: {} is no longer {}, leaving its status alone", contentId, from);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks that the additional topics exist; the content's own topic is
+     * dropped from them.
+     */
+    private Set<Long> additionalTopicIds(Long topicId, Set<Long> requested) {
+        Set<Long> topicIds = new LinkedHashSet<>();
+        if (requested == null) {
+            return topicIds;
+        }
+        for (Long additionalTopicId : requested) {
+            if (additionalTopicId == null || additionalTopicId.equals(topicId)) {
+                continue;
+            }
+            if (topicCache.findById(additionalTopicId).isEmpty()) {
+                throw new IllegalArgumentException("Topic not found with ID: " + additionalTopicId);
+            }
+            topicIds.add(additionalTopicId);
+        }
+        return topicIds;
     }
 
     private ContentDTO convertToDTO(Content content) {
+        return convertToDTO(content, content.getTopic().getName());
+    }
+
+    private ContentDTO convertToDTO(Content content, String topicName) {
         ContentDTO dto = new ContentDTO();
         dto.setId(content.getId());
         dto.setSubject(content.getSubject());
         dto.setBody(content.getBody());
         dto.setTopicId(content.getTopic().getId());
-        dto.setTopicName(content.getTopic().getName());
+        dto.setTopicName(topicName);
+        dto.setAdditionalTopicIds(new LinkedHashSet<>(content.getAdditionalTopicIds()));
+        dto.setSegment(content.getSegment());
         dto.setScheduledTime(content.getScheduledTime());
+        dto.setLocalDelivery(content.getLocalDelivery());
+        dto.setSendWindowMinutes(content.getSendWindowMinutes());
         dto.setStatus(content.getStatus());
         dto.setSentAt(content.getSentAt());
         return dto;
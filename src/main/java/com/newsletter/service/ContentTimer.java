@@ -0,0 +1,111 @@
+package com.newsletter.service;
+
+import com.newsletter.dto.ContentSchedule;
+import com.newsletter.model.Content.ContentStatus;
+import com.newsletter.repository.ContentRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires due content from an in-memory {@link TimingWheel} instead of waiting
+ * for a minute-granularity poll. The wheel is loaded from the database at
+ * startup and kept current by {@link ContentScheduleChangedEvent}s published
+ * by {@link ContentService}. Every node runs its own wheel; the SCHEDULED to
+ * SENDING claim in {@link NewsletterSchedulerService} lets only one of them
+ * dispatch a given content.
+ */
+@Service
+@Slf4j
+public class ContentTimer {
+
+    private final ContentRepository contentRepository;
+    private final NewsletterSchedulerService schedulerService;
+    private final TaskExecutor dispatchExecutor;
+    private final long tickMillis;
+    private final TimingWheel<Long> wheel;
+    private final ScheduledExecutorService clock;
+
+    public ContentTimer(ContentRepository contentRepository,
+                        NewsletterSchedulerService schedulerService,
+                        @Qualifier("dispatchExecutor") TaskExecutor dispatchExecutor,
+                        @Value("${newsletter.scheduler.timer.tick-ms:250}") long tickMillis,
+                        @Value("${newsletter.scheduler.timer.wheel-size:1024}") int wheelSize) {
+        this.contentRepository = contentRepository;
+        this.schedulerService = schedulerService;
+        this.dispatchExecutor = dispatchExecutor;
+        this.tickMillis = tickMillis;
+        this.wheel = new TimingWheel<>(tickMillis, wheelSize, System.currentTimeMillis());
+        this.clock = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "content-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        List<ContentSchedule> scheduled = contentRepository.findScheduleByStatus(ContentStatus.SCHEDULED);
+        scheduled.forEach(schedule -> onScheduleChanged(new ContentScheduleChangedEvent(
+                schedule.contentId(), schedule.scheduledTime(), schedule.localDelivery())));
+        log.info("Loaded {} scheduled newsletters into the content timer", scheduled.size());
+
+        clock.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        clock.shutdownNow();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScheduleChanged(ContentScheduleChangedEvent event) {
+        if (event.scheduledTime() == null) {
+            wheel.cancel(event.contentId());
+            return;
+        }
+        wheel.schedule(event.contentId(), toEpochMillis(event.scheduledTime()));
+    }
+
+    public int pending() {
+        return wheel.size();
+    }
+
+    private void tick() {
+        try {
+            List<Long> due = wheel.advance(System.currentTimeMillis());
+            if (!due.isEmpty()) {
+                dispatchExecutor.execute(() -> fire(due));
+            }
+        } catch (Exception e) {
+            log.error("Content timer tick failed. Error: {}", e.getMessage(), e);
+        }
+    }
+
+    private void fire(List<Long> contentIds) {
+        try {
+            schedulerService.dispatchDueContents(contentIds);
+        } catch (Exception e) {
+            log.error("Failed to dispatch content IDs: {} from timer. Error: {}", contentIds, e.getMessage(), e);
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        Instant instant = time.atZone(ZoneId.systemDefault()).toInstant();
+        // Round up so the timer never fires before a sub-millisecond scheduled time
+        return instant.getNano() % 1_000_000 == 0 ? instant.toEpochMilli() : instant.toEpochMilli() + 1;
+    }
+}
@@ -0,0 +1,92 @@
+package com.newsletter.service;
+
+import com.newsletter.dto.CursorPage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Keyset pagination over id-ordered listings, newest first. A page is read
+ * as {@code id < cursor ORDER BY id DESC} with one extra row to tell whether
+ * another page follows, so the cost of a page does not depend on how deep
+ * into the listing it is. Cursors are opaque to clients.
+ */
+@Component
+public class CursorPager {
+
+    private static final String CURSOR_PREFIX = "id:";
+
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    public CursorPager(@Value("${newsletter.pagination.default-limit:50}") int defaultLimit,
+                       @Value("${newsletter.pagination.max-limit:200}") int maxLimit) {
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Reads the page after {@code cursor}. The query receives the exclusive
+     * upper id bound and a pageable limited to one row more than the page.
+     */
+    public <E, T> CursorPage<T> page(String cursor, Integer limit,
+                                     BiFunction<Long, Pageable, List<E>> query,
+                                     ToLongFunction<E> idOf,
+                                     Function<E, T> mapper) {
+        int size = resolveLimit(limit);
+        List<E> rows = query.apply(decode(cursor), PageRequest.of(0, size + 1));
+
+        boolean hasMore = rows.size() > size;
+        List<E> pageRows = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = hasMore ? encode(idOf.applyAsLong(pageRows.get(size - 1))) : null;
+
+        return new CursorPage<>(pageRows.stream().map(mapper).toList(), nextCursor);
+    }
+
+    /**
+     * Rejects a time-range filter whose lower bound is not before its upper bound.
+     */
+    public static void checkRange(LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+    }
+
+    int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return defaultLimit;
+        }
+        if (limit < 1 || limit > maxLimit) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxLimit);
+        }
+        return limit;
+    }
+
+    static String encode(long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new IllegalArgumentException();
+            }
+            return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.newsletter.service;
+
+import com.newsletter.dto.Recipient;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Recipients that already have a successful delivery for one content.
+ * Recipients the Bloom filter rules out pass straight through, and possible
+ * matches are confirmed with one batched lookup per chunk.
+ */
+final class DeliveredRecipients {
+
+    static final DeliveredRecipients NONE = new DeliveredRecipients(null, ids -> Set.of());
+
+    private final BloomFilter filter;
+    private final Function<Collection<Long>, Set<Long>> confirm;
+
+    DeliveredRecipients(BloomFilter filter, Function<Collection<Long>, Set<Long>> confirm) {
+        this.filter = filter;
+        this.confirm = confirm;
+    }
+
+    /**
+     * Returns the chunk without the recipients that were already delivered.
+     */
+    List<Recipient> removeDelivered(List<Recipient> chunk) {
+        if (filter == null) {
+            return chunk;
+        }
+
+        List<Long> candidates = new ArrayList<>();
+        for (Recipient recipient : chunk) {
+            if (filter.mightContain(recipient.subscriberId())) {
+                candidates.add(recipient.subscriberId());
+            }
+        }
+        if (candidates.isEmpty()) {
+            return chunk;
+        }
+
+        Set<Long> delivered = confirm.apply(candidates);
+        if (delivered.isEmpty()) {
+            return chunk;
+        }
+
+        List<Recipient> remaining = new ArrayList<>(chunk.size() - delivered.size());
+        for (Recipient recipient : chunk) {
+            if (!delivered.contains(recipient.subscriberId())) {
+                remaining.add(recipient);
+            }
+        }
+        return remaining;
+    }
+}
@@ -0,0 +1,51 @@
+package com.newsletter.service;
+
+import com.newsletter.dto.Recipient;
+import com.newsletter.model.EmailLog.EmailStatus;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A single recipient's message as it moves between pipeline stages. A digest
+ * delivery carries one part per content it combines; its outcome is logged
+ * against every part.
+ */
+@Getter
+@Setter
+@RequiredArgsConstructor
+class Delivery {
+
+    private final DispatchJob job;
+    private final Recipient recipient;
+    private List<Delivery> parts = List.of();
+    private String subject;
+    private String text;
+    private EmailStatus status;
+    private String errorMessage;
+    private LocalDateTime nextAttemptAt;
+
+    static Delivery digest(List<Delivery> parts) {
+        Delivery lead = parts.get(0);
+        Delivery digest = new Delivery(lead.getJob(), lead.getRecipient());
+        digest.parts = List.copyOf(parts);
+        return digest;
+    }
+
+    boolean isDigest() {
+        return !parts.isEmpty();
+    }
+
+    void fail(String errorMessage) {
+        this.status = EmailStatus.FAILED;
+        this.errorMessage = errorMessage;
+    }
+
+    void retryAt(LocalDateTime nextAttemptAt, String errorMessage) {
+        this.status = EmailStatus.RETRY;
+        this.errorMessage = errorMessage;
+        this.nextAttemptAt = nextAttemptAt;
+    }
+}
@@ -0,0 +1,74 @@
+package com.newsletter.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Guards against sending the same content to the same subscriber twice.
+ * Before a dispatch reads its audience, the subscriber ids that already have a
+ * SUCCESS log for the content are loaded into a Bloom filter, so a first send
+ * costs one count query and a re-driven send only re-checks the recipients the
+ * filter flags. The unique (content_id, subscriber_id) key on
+ * {@code email_logs} remains the final arbiter.
+ */
+@Service
+@Slf4j
+public class DeliveryDeduplicator {
+
+    private static final String COUNT_SQL =
+            "SELECT COUNT(*) FROM email_logs WHERE content_id = ? AND status = 'SUCCESS'";
+    private static final String DELIVERED_SQL =
+            "SELECT subscriber_id FROM email_logs WHERE content_id = ? AND status = 'SUCCESS'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EmailLogWriter emailLogWriter;
+    private final double falsePositiveRate;
+
+    public DeliveryDeduplicator(JdbcTemplate jdbcTemplate,
+                                EmailLogWriter emailLogWriter,
+                                @Value("${newsletter.dedup.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.emailLogWriter = emailLogWriter;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    /**
+     * Loads the recipients already delivered for a content. Buffered log
+     * records are flushed first so outcomes of a just-finished run count.
+     */
+    DeliveredRecipients load(Long contentId) {
+        emailLogWriter.flush();
+
+        Long delivered = jdbcTemplate.queryForObject(COUNT_SQL, Long.class, contentId);
+        if (delivered == null || delivered == 0) {
+            return DeliveredRecipients.NONE;
+        }
+
+        BloomFilter filter = BloomFilter.create(delivered, falsePositiveRate);
+        jdbcTemplate.query(DELIVERED_SQL, rs -> {
+            filter.put(rs.getLong(1));
+        }, contentId);
+        log.info("Content ID: {} already delivered to {} recipients; they will be skipped", contentId, delivered);
+
+        return new DeliveredRecipients(filter, ids -> confirmDelivered(contentId, ids));
+    }
+
+    private Set<Long> confirmDelivered(Long contentId, Collection<Long> subscriberIds) {
+        String placeholders = String.join(",", Collections.nCopies(subscriberIds.size(), "?"));
+        Object[] args = new Object[subscriberIds.size() + 1];
+        args[0] = contentId;
+        int i = 1;
+        for (Long id : subscriberIds) {
+            args[i++] = id;
+        }
+
+        return new HashSet<>(jdbcTemplate.queryForList(
+                DELIVERED_SQL + " AND subscriber_id IN (" + placeholders + ")", Long.class, args));
+    }
+}
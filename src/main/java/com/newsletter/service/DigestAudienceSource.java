@@ -0,0 +1,20 @@
+package com.newsletter.service;
+
+import com.newsletter.dto.DigestRecipient;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Supplies the recipients of a digest in chunks ordered by email, where all
+ * rows for one email address arrive in the same chunk.
+ */
+@FunctionalInterface
+public interface DigestAudienceSource {
+
+    /**
+     * Hands each chunk of recipients to the handler in turn.
+     *
+     * @return the total number of subscriber rows supplied
+     */
+    long forEachChunk(Consumer<List<DigestRecipient>> handler);
+}
@@ -0,0 +1,11 @@
+package com.newsletter.service;
+
+import java.util.List;
+
+/**
+ * Several contents due together, sent as one combined message per recipient
+ * email. Each part keeps its own counters and completion, so the contents
+ * finish and are logged independently.
+ */
+public record DigestJob(List<DispatchJob> parts, DigestAudienceSource audienceSource) {
+}
@@ -0,0 +1,120 @@
+package com.newsletter.service;
+
+import com.newsletter.model.Content;
+import com.newsletter.model.EmailLog.EmailStatus;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One content's trip through the {@link DispatchPipeline}. Holds a snapshot of
+ * the content so pipeline stages never touch managed entities, and tracks
+ * per-recipient outcomes until the whole audience has been accounted for.
+ */
+@Getter
+public class DispatchJob {
+
+    private final Long contentId;
+    private final String subject;
+    private final String body;
+    private final Long topicId;
+    private final String topicName;
+    private final AudienceSource audienceSource;
+    private final boolean retry;
+    private final Map<Long, Integer> priorAttempts;
+
+    /** Window to spread the send over; null for unpaced content and retries. */
+    private final Duration sendWindow;
+
+    /** Audience size the send window is paced against, set by the scheduler. */
+    @Setter(AccessLevel.PACKAGE)
+    private volatile long expectedRecipients = -1L;
+
+    /** Compiled by the reader stage before any recipient is queued for rendering. */
+    @Setter(AccessLevel.PACKAGE)
+    private volatile MessageTemplate template;
+
+    /** Compiled only when the job is sent as part of a digest. */
+    @Setter(AccessLevel.PACKAGE)
+    private volatile MessageTemplate digestSection;
+
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final CompletableFuture<DispatchResult> completion = new CompletableFuture<>();
+    private volatile long total = -1L;
+
+    public DispatchJob(Content content, AudienceSource audienceSource) {
+        this(content, audienceSource, false, Map.of());
+    }
+
+    private DispatchJob(Content content, AudienceSource audienceSource,
+                        boolean retry, Map<Long, Integer> priorAttempts) {
+        this.contentId = content.getId();
+        this.subject = content.getSubject();
+        this.body = content.getBody();
+        this.topicId = content.getTopic().getId();
+        this.topicName = content.getTopic().getName();
+        this.audienceSource = audienceSource;
+        this.retry = retry;
+        this.priorAttempts = priorAttempts;
+        this.sendWindow = retry || content.getSendWindowMinutes() == null
+                ? null
+                : Duration.ofMinutes(content.getSendWindowMinutes());
+    }
+
+    /**
+     * A job that re-sends to recipients whose earlier attempts failed
+     * transiently, keyed by subscriber id to the attempts already made.
+     */
+    static DispatchJob retry(Content content, AudienceSource audienceSource, Map<Long, Integer> priorAttempts) {
+        return new DispatchJob(content, audienceSource, true, priorAttempts);
+    }
+
+    /**
+     * Whether the job's messages are spread over its send window.
+     */
+    boolean isPaced() {
+        return sendWindow != null && expectedRecipients > 0;
+    }
+
+    /**
+     * The number of the attempt this job makes for the subscriber, starting at 1.
+     */
+    int attemptFor(Long subscriberId) {
+        return priorAttempts.getOrDefault(subscriberId, 0) + 1;
+    }
+
+    void readingFinished(long total) {
+        this.total = total;
+        completeIfDone();
+    }
+
+    void recordSkipped(long count) {
+        skipped.addAndGet(count);
+    }
+
+    void recordOutcome(EmailStatus status) {
+        if (status == EmailStatus.SUCCESS) {
+            succeeded.incrementAndGet();
+        } else {
+            failed.incrementAndGet();
+        }
+        completeIfDone();
+    }
+
+    void abort(Throwable cause) {
+        completion.completeExceptionally(cause);
+    }
+
+    private void completeIfDone() {
+        long expected = total;
+        if (expected >= 0 && succeeded.get() + failed.get() + skipped.get() >= expected) {
+            completion.complete(new DispatchResult(contentId, succeeded.get(), failed.get(), skipped.get()));
+        }
+    }
+}
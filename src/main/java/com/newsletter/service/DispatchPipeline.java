@@ -0,0 +1,367 @@
+package com.newsletter.service;
+
+import com.newsletter.config.PipelineProperties;
+import com.newsletter.dto.DigestRecipient;
+import com.newsletter.dto.Recipient;
+import com.newsletter.dto.StageStatsDTO;
+import com.newsletter.model.EmailLog.EmailStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Sends newsletters through four stages connected by bounded queues:
+ * audience reader, renderer, sender and log writer. Each stage has its own
+ * worker count, and a full queue blocks the stage upstream of it, so memory
+ * stays bounded by the queue capacities whatever the audience size.
+ * <p>
+ * Readers take a {@link SendPacer} token for each message they hand on:
+ * from the job's own pacer when it has a send window, and from the node's
+ * hourly quota when {@code newsletter.pacing.max-per-hour} is set.
+ */
+@Component
+@Slf4j
+public class DispatchPipeline {
+
+    private final EmailService emailService;
+    private final EmailLogWriter emailLogWriter;
+    private final DeliveryDeduplicator deliveryDeduplicator;
+    private final RetryPolicy retryPolicy;
+    private final TaskExecutor dispatchExecutor;
+    private final SendPacer hourlyQuota;
+
+    private final PipelineStage<Runnable> readerStage;
+    private final PipelineStage<Delivery> rendererStage;
+    private final PipelineStage<Delivery> senderStage;
+    private final PipelineStage<Delivery> logWriterStage;
+
+    private final AtomicInteger activeFirstAttempts = new AtomicInteger();
+    private final Set<DispatchJob> activeJobs = ConcurrentHashMap.newKeySet();
+
+    public DispatchPipeline(EmailService emailService,
+                            EmailLogWriter emailLogWriter,
+                            DeliveryDeduplicator deliveryDeduplicator,
+                            RetryPolicy retryPolicy,
+                            @Qualifier("dispatchExecutor") TaskExecutor dispatchExecutor,
+                            PipelineProperties properties,
+                            @Value("${newsletter.pacing.max-per-hour:0}") long maxPerHour) {
+        this.emailService = emailService;
+        this.emailLogWriter = emailLogWriter;
+        this.deliveryDeduplicator = deliveryDeduplicator;
+        this.retryPolicy = retryPolicy;
+        this.dispatchExecutor = dispatchExecutor;
+        this.hourlyQuota = maxPerHour > 0 ? SendPacer.perHour(maxPerHour) : null;
+
+        this.readerStage = stage("reader", properties.getReader(), Runnable::run);
+        this.rendererStage = stage("renderer", properties.getRenderer(), this::render);
+        this.senderStage = stage("sender", properties.getSender(), this::send);
+        this.logWriterStage = stage("log-writer", properties.getLogWriter(), this::writeLog);
+    }
+
+    @PostConstruct
+    public void start() {
+        logWriterStage.start(dispatchExecutor);
+        senderStage.start(dispatchExecutor);
+        rendererStage.start(dispatchExecutor);
+        readerStage.start(dispatchExecutor);
+    }
+
+    /**
+     * Stops the stages. Deliveries still waiting to be rendered or sent are
+     * dropped, while those already sent are still logged. Every unfinished
+     * job is then aborted, so its owner records the outcome instead of
+     * leaving the content in SENDING.
+     */
+    @PreDestroy
+    public void stop() {
+        int dropped = readerStage.stop().size() + rendererStage.stop().size() + senderStage.stop().size();
+        logWriterStage.stop().forEach(this::writeLog);
+
+        List<DispatchJob> unfinished = List.copyOf(activeJobs);
+        IllegalStateException stopped = new IllegalStateException("Dispatch pipeline stopped");
+        unfinished.forEach(job -> job.abort(stopped));
+        if (!unfinished.isEmpty()) {
+            log.warn("Dispatch pipeline stopped with {} unfinished jobs, dropped {} queued items",
+                    unfinished.size(), dropped);
+        }
+    }
+
+    /**
+     * Queues a job for sending, blocking while the reader queue is full.
+     *
+     * @return a future completed once every recipient has a logged outcome
+     */
+    public CompletableFuture<DispatchResult> submit(DispatchJob job) {
+        log.info("Queueing {} for content ID: {}", job.isRetry() ? "retry" : "dispatch", job.getContentId());
+        track(job);
+        if (!job.isRetry()) {
+            activeFirstAttempts.incrementAndGet();
+            job.getCompletion().whenComplete((result, error) -> activeFirstAttempts.decrementAndGet());
+        }
+        if (job.isPaced() || job.getAudienceSource().isPaced()) {
+            // Waits for tokens or claims for most of its window, so it gets
+            // its own thread rather than holding a reader worker all that time
+            dispatchExecutor.execute(() -> read(job));
+        } else {
+            readerStage.put(() -> read(job));
+        }
+        return job.getCompletion();
+    }
+
+    /**
+     * Queues several contents to be sent as one digest per recipient email.
+     * Each part's completion reports that content's own outcomes.
+     */
+    public void submitDigest(DigestJob digest) {
+        log.info("Queueing digest of {} contents", digest.parts().size());
+        for (DispatchJob job : digest.parts()) {
+            track(job);
+            activeFirstAttempts.incrementAndGet();
+            job.getCompletion().whenComplete((result, error) -> activeFirstAttempts.decrementAndGet());
+        }
+        readerStage.put(() -> readDigest(digest));
+    }
+
+    /**
+     * Whether any first-attempt send is in flight. Retries wait while it is.
+     */
+    public boolean isBusy() {
+        return activeFirstAttempts.get() > 0;
+    }
+
+    public List<StageStatsDTO> stats() {
+        return List.of(readerStage.stats(), rendererStage.stats(),
+                senderStage.stats(), logWriterStage.stats());
+    }
+
+    private void track(DispatchJob job) {
+        activeJobs.add(job);
+        job.getCompletion().whenComplete((result, error) -> activeJobs.remove(job));
+    }
+
+    private void read(DispatchJob job) {
+        try {
+            DeliveredRecipients delivered = job.isRetry()
+                    ? DeliveredRecipients.NONE
+                    : deliveryDeduplicator.load(job.getContentId());
+            AudienceSource source = job.getAudienceSource();
+            SendPacer pacer = pacerFor(job);
+
+            long total = source.forEachChunk(chunk -> {
+                List<Recipient> pending = delivered.removeDelivered(chunk);
+                if (pending.size() < chunk.size()) {
+                    skipDelivered(job, chunk, pending);
+                }
+                // Compiled with the first recipient, so an empty audience costs nothing
+                if (!pending.isEmpty() && job.getTemplate() == null) {
+                    job.setTemplate(emailService.compileTemplate(job));
+                }
+                for (Recipient recipient : pending) {
+                    pacer.acquire();
+                    rendererStage.put(new Delivery(job, recipient));
+                }
+            });
+            log.info("Read {} recipients for content ID: {}", total, job.getContentId());
+            job.readingFinished(total);
+        } catch (Exception e) {
+            log.error("Failed to read audience for content ID: {}. Error: {}", job.getContentId(), e.getMessage(), e);
+            job.abort(e);
+        }
+    }
+
+    private SendPacer pacerFor(DispatchJob job) {
+        if (job.isPaced()) {
+            log.info("Pacing {} recipients of content ID: {} over {} minutes", job.getExpectedRecipients(),
+                    job.getContentId(), job.getSendWindow().toMinutes());
+            return SendPacer.spread(job.getExpectedRecipients(), job.getSendWindow(), hourlyQuota);
+        }
+        return hourlyQuota != null ? hourlyQuota : SendPacer.UNLIMITED;
+    }
+
+    private void readDigest(DigestJob digest) {
+        List<DispatchJob> jobs = digest.parts();
+        try {
+            Map<Long, List<DispatchJob>> jobsByTopic = new HashMap<>();
+            Map<DispatchJob, DeliveredRecipients> deliveredByJob = new IdentityHashMap<>();
+            Map<DispatchJob, long[]> readByJob = new IdentityHashMap<>();
+            for (DispatchJob job : jobs) {
+                job.setTemplate(emailService.compileTemplate(job));
+                job.setDigestSection(emailService.compileDigestSection(job));
+                jobsByTopic.computeIfAbsent(job.getTopicId(), id -> new ArrayList<>()).add(job);
+                deliveredByJob.put(job, deliveryDeduplicator.load(job.getContentId()));
+                readByJob.put(job, new long[1]);
+            }
+
+            long total = digest.audienceSource().forEachChunk(chunk -> {
+                Map<DispatchJob, Set<Long>> pendingByJob = pendingByJob(chunk, jobsByTopic, deliveredByJob, readByJob);
+
+                List<Delivery> group = new ArrayList<>();
+                String groupEmail = null;
+                for (DigestRecipient row : chunk) {
+                    if (!row.email().equals(groupEmail)) {
+                        enqueueGroup(group);
+                        group = new ArrayList<>();
+                        groupEmail = row.email();
+                    }
+                    for (DispatchJob job : jobsByTopic.getOrDefault(row.topicId(), List.of())) {
+                        if (pendingByJob.get(job).contains(row.subscriberId())) {
+                            group.add(new Delivery(job, row.toRecipient()));
+                        }
+                    }
+                }
+                enqueueGroup(group);
+            });
+
+            log.info("Read {} digest recipients for content IDs: {}", total,
+                    jobs.stream().map(DispatchJob::getContentId).toList());
+            for (DispatchJob job : jobs) {
+                job.readingFinished(readByJob.get(job)[0]);
+            }
+        } catch (Exception e) {
+            log.error("Failed to read digest audience. Error: {}", e.getMessage(), e);
+            jobs.forEach(job -> job.abort(e));
+        }
+    }
+
+    /**
+     * Splits a digest chunk per content, drops already delivered recipients
+     * and returns the subscriber ids each content still has to reach.
+     */
+    private Map<DispatchJob, Set<Long>> pendingByJob(List<DigestRecipient> chunk,
+                                                     Map<Long, List<DispatchJob>> jobsByTopic,
+                                                     Map<DispatchJob, DeliveredRecipients> deliveredByJob,
+                                                     Map<DispatchJob, long[]> readByJob) {
+        Map<DispatchJob, List<Recipient>> rowsByJob = new IdentityHashMap<>();
+        for (DigestRecipient row : chunk) {
+            for (DispatchJob job : jobsByTopic.getOrDefault(row.topicId(), List.of())) {
+                rowsByJob.computeIfAbsent(job, j -> new ArrayList<>()).add(row.toRecipient());
+            }
+        }
+
+        Map<DispatchJob, Set<Long>> pendingByJob = new IdentityHashMap<>();
+        for (DispatchJob job : deliveredByJob.keySet()) {
+            List<Recipient> rows = rowsByJob.getOrDefault(job, List.of());
+            List<Recipient> pending = deliveredByJob.get(job).removeDelivered(rows);
+            if (pending.size() < rows.size()) {
+                skipDelivered(job, rows, pending);
+            }
+            readByJob.get(job)[0] += rows.size();
+
+            Set<Long> ids = new HashSet<>(pending.size() * 2);
+            for (Recipient recipient : pending) {
+                ids.add(recipient.subscriberId());
+            }
+            pendingByJob.put(job, ids);
+        }
+        return pendingByJob;
+    }
+
+    private void enqueueGroup(List<Delivery> group) {
+        if (!group.isEmpty() && hourlyQuota != null) {
+            hourlyQuota.acquire();
+        }
+        if (group.size() == 1) {
+            rendererStage.put(group.get(0));
+        } else if (group.size() > 1) {
+            rendererStage.put(Delivery.digest(group));
+        }
+    }
+
+    private void skipDelivered(DispatchJob job, List<Recipient> chunk, List<Recipient> pending) {
+        Set<Long> pendingIds = new HashSet<>(pending.size() * 2);
+        for (Recipient recipient : pending) {
+            pendingIds.add(recipient.subscriberId());
+        }
+        List<Recipient> skipped = new ArrayList<>(chunk.size() - pending.size());
+        for (Recipient recipient : chunk) {
+            if (!pendingIds.contains(recipient.subscriberId())) {
+                skipped.add(recipient);
+            }
+        }
+
+        job.getAudienceSource().alreadyDelivered(skipped);
+        job.recordSkipped(skipped.size());
+        log.debug("Skipped {} already delivered recipients for content ID: {}", skipped.size(), job.getContentId());
+    }
+
+    private void render(Delivery delivery) {
+        try {
+            if (delivery.isDigest()) {
+                delivery.setSubject(emailService.formatDigestSubject(delivery.getParts()));
+                delivery.setText(emailService.formatDigestBody(delivery.getParts()));
+            } else {
+                delivery.setSubject(delivery.getJob().getSubject());
+                delivery.setText(emailService.formatEmailBody(delivery.getJob(), delivery.getRecipient()));
+            }
+            senderStage.put(delivery);
+        } catch (Exception e) {
+            log.error("Failed to render email for: {}. Error: {}", delivery.getRecipient().email(), e.getMessage());
+            delivery.fail(e.getMessage());
+            logWriterStage.put(delivery);
+        }
+    }
+
+    private void send(Delivery delivery) {
+        Recipient recipient = delivery.getRecipient();
+        try {
+            emailService.send(recipient.email(), delivery.getSubject(), delivery.getText());
+            delivery.setStatus(EmailStatus.SUCCESS);
+            log.debug("Email sent successfully to: {}", recipient.email());
+        } catch (Exception e) {
+            int attempt = delivery.getJob().attemptFor(recipient.subscriberId());
+            if (retryPolicy.isTransient(e) && retryPolicy.canRetry(attempt)) {
+                LocalDateTime nextAttemptAt = LocalDateTime.now().plus(retryPolicy.backoff(attempt));
+                log.warn("Transient failure sending to: {} (attempt {}), retrying at {}. Error: {}",
+                        recipient.email(), attempt, nextAttemptAt, e.getMessage());
+                delivery.retryAt(nextAttemptAt, e.getMessage());
+            } else {
+                log.error("Failed to send email to: {} (attempt {}). Error: {}", recipient.email(), attempt, e.getMessage());
+                delivery.fail(e.getMessage());
+            }
+        }
+        logWriterStage.put(delivery);
+    }
+
+    private void writeLog(Delivery delivery) {
+        if (!delivery.isDigest()) {
+            writeLog(delivery, delivery);
+            return;
+        }
+        for (Delivery part : delivery.getParts()) {
+            writeLog(delivery, part);
+        }
+    }
+
+    private void writeLog(Delivery outcome, Delivery part) {
+        DispatchJob job = part.getJob();
+        Recipient recipient = part.getRecipient();
+        try {
+            emailLogWriter.append(new EmailLogRecord(job.getContentId(), recipient.subscriberId(),
+                    recipient.email(), outcome.getStatus(), outcome.getErrorMessage(), LocalDateTime.now(),
+                    job.attemptFor(recipient.subscriberId()), outcome.getNextAttemptAt()));
+        } finally {
+            job.recordOutcome(outcome.getStatus());
+        }
+    }
+
+    private static <T> PipelineStage<T> stage(String name, PipelineProperties.Stage settings,
+                                              Consumer<T> handler) {
+        return new PipelineStage<>(name, settings.getParallelism(), settings.getQueueCapacity(), handler);
+    }
+}
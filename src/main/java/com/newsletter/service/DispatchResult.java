@@ -0,0 +1,8 @@
+package com.newsletter.service;
+
+/**
+ * Outcome of one dispatch. {@code skipped} counts recipients that already had
+ * a successful delivery from an earlier run and were not sent to again.
+ */
+public record DispatchResult(Long contentId, long succeeded, long failed, long skipped) {
+}
@@ -0,0 +1,97 @@
+package com.newsletter.service;
+
+/**
+ * Set of email addresses held as 64-bit hashes in an open-addressing
+ * {@code long[]} table, for de-duplicating recipients across topics without
+ * keeping a {@code String} per address. Addresses are compared trimmed and
+ * case-insensitively. Two distinct addresses sharing a hash count as one,
+ * which at 64 bits is vanishingly unlikely even for millions of addresses.
+ * Not thread-safe.
+ */
+public final class EmailHashSet {
+
+    private static final long EMPTY = 0L;
+
+    private long[] table;
+    private int size;
+    private int resizeAt;
+
+    public EmailHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 4 / 3) - 1) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * @return true if the address was not in the set yet
+     */
+    public boolean add(String email) {
+        long hash = hash(email);
+        int mask = table.length - 1;
+        int index = (int) hash & mask;
+
+        while (table[index] != EMPTY) {
+            if (table[index] == hash) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+
+        table[index] = hash;
+        if (++size >= resizeAt) {
+            grow();
+        }
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void grow() {
+        long[] old = table;
+        allocate(old.length << 1);
+        int mask = table.length - 1;
+        for (long hash : old) {
+            if (hash != EMPTY) {
+                int index = (int) hash & mask;
+                while (table[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                table[index] = hash;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        table = new long[capacity];
+        resizeAt = capacity / 4 * 3;
+    }
+
+    /**
+     * FNV-1a over the trimmed, lower-cased characters, finished with the
+     * MurmurHash3 64-bit mix. Zero marks an empty slot, so it is remapped.
+     */
+    static long hash(String email) {
+        int start = 0;
+        int end = email.length();
+        while (start < end && Character.isWhitespace(email.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(email.charAt(end - 1))) {
+            end--;
+        }
+
+        long hash = 0xcbf29ce484222325L;
+        for (int i = start; i < end; i++) {
+            hash ^= Character.toLowerCase(email.charAt(i));
+            hash *= 0x100000001b3L;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash == EMPTY ? 1L : hash;
+    }
+}
@@ -0,0 +1,18 @@
+package com.newsletter.service;
+
+import com.newsletter.model.EmailLog.EmailStatus;
+import java.time.LocalDateTime;
+
+/**
+ * Detached, immutable row destined for the {@code email_logs} table.
+ */
+public record EmailLogRecord(
+        Long contentId,
+        Long subscriberId,
+        String recipientEmail,
+        EmailStatus status,
+        String errorMessage,
+        LocalDateTime sentAt,
+        int attempts,
+        LocalDateTime nextAttemptAt) {
+}
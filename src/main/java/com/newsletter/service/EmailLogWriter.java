@@ -0,0 +1,223 @@
+package com.newsletter.service;
+
+import com.newsletter.config.DatabasePlatform;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind sink for delivery logs. Records are buffered in memory and
+ * written to {@code email_logs} as JDBC batch inserts, either when the buffer
+ * reaches the batch size or on the periodic flush, whichever comes first.
+ * <p>
+ * Rows are upserted on the (content_id, subscriber_id) key: a later outcome
+ * for the same recipient replaces an earlier failure, but a SUCCESS row is
+ * never overwritten.
+ * <p>
+ * A batch that fails is retried row by row, so a record the database
+ * rejects is dropped on its own instead of holding back the rest. Records
+ * that fail for a transient reason, such as a lost connection, are kept for
+ * the next flush.
+ */
+@Component
+@Slf4j
+public class EmailLogWriter {
+
+    private static final String POSTGRES_UPSERT_SQL =
+            "INSERT INTO email_logs (id, content_id, subscriber_id, recipient_email, status, error_message, sent_at, " +
+            "attempts, next_attempt_at) VALUES (nextval('email_logs_seq'), ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (content_id, subscriber_id) DO UPDATE SET recipient_email = EXCLUDED.recipient_email, " +
+            "status = EXCLUDED.status, error_message = EXCLUDED.error_message, sent_at = EXCLUDED.sent_at, " +
+            "attempts = EXCLUDED.attempts, next_attempt_at = EXCLUDED.next_attempt_at " +
+            "WHERE email_logs.status <> 'SUCCESS'";
+
+    private static final String MERGE_SQL =
+            "MERGE INTO email_logs t USING (VALUES (CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS VARCHAR), " +
+            "CAST(? AS VARCHAR), CAST(? AS VARCHAR), CAST(? AS TIMESTAMP), CAST(? AS INTEGER), CAST(? AS TIMESTAMP))) " +
+            "AS s (content_id, subscriber_id, recipient_email, status, error_message, sent_at, attempts, next_attempt_at) " +
+            "ON t.content_id = s.content_id AND t.subscriber_id = s.subscriber_id " +
+            "WHEN MATCHED AND t.status <> 'SUCCESS' THEN UPDATE SET recipient_email = s.recipient_email, " +
+            "status = s.status, error_message = s.error_message, sent_at = s.sent_at, " +
+            "attempts = s.attempts, next_attempt_at = s.next_attempt_at " +
+            "WHEN NOT MATCHED THEN INSERT (id, content_id, subscriber_id, recipient_email, status, error_message, " +
+            "sent_at, attempts, next_attempt_at) VALUES (NEXT VALUE FOR email_logs_seq, s.content_id, " +
+            "s.subscriber_id, s.recipient_email, s.status, " +
+            "s.error_message, s.sent_at, s.attempts, s.next_attempt_at)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String upsertSql;
+    private final int batchSize;
+    private final int maxPending;
+
+    private final Object lock = new Object();
+    private final List<Consumer<List<EmailLogRecord>>> flushListeners = new CopyOnWriteArrayList<>();
+    private List<EmailLogRecord> buffer;
+
+    public EmailLogWriter(JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          DatabasePlatform databasePlatform,
+                          @Value("${newsletter.email-log.batch-size:500}") int batchSize,
+                          @Value("${newsletter.email-log.max-pending:50000}") int maxPending) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.upsertSql = databasePlatform.isPostgres() ? POSTGRES_UPSERT_SQL : MERGE_SQL;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+        this.buffer = new ArrayList<>(batchSize);
+    }
+
+    /**
+     * Buffers a record. The calling thread performs the batch write when its
+     * append fills the buffer.
+     */
+    public void append(EmailLogRecord record) {
+        List<EmailLogRecord> full = null;
+
+        synchronized (lock) {
+            buffer.add(record);
+            if (buffer.size() >= batchSize) {
+                full = buffer;
+                buffer = new ArrayList<>(batchSize);
+            }
+        }
+
+        if (full != null) {
+            write(full);
+        }
+    }
+
+    /**
+     * Writes everything buffered so far. When this returns normally, every
+     * record appended before the call has been committed.
+     *
+     * @return the number of records written
+     */
+    @Scheduled(fixedDelayString = "${newsletter.email-log.flush-interval-ms:1000}")
+    public int flush() {
+        List<EmailLogRecord> drained;
+
+        synchronized (lock) {
+            if (buffer.isEmpty()) {
+                return 0;
+            }
+            drained = buffer;
+            buffer = new ArrayList<>(batchSize);
+        }
+
+        return write(drained);
+    }
+
+    /**
+     * Registers a durability hook that is called with each batch after it has
+     * been committed.
+     */
+    public void onFlush(Consumer<List<EmailLogRecord>> listener) {
+        flushListeners.add(listener);
+    }
+
+    public int pending() {
+        synchronized (lock) {
+            return buffer.size();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        int written = flush();
+        log.info("Email log writer closed, flushed {} pending records", written);
+    }
+
+    private int write(List<EmailLogRecord> records) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> upsert(records));
+        } catch (Exception e) {
+            log.warn("Failed to write {} email log records, retrying row by row. Error: {}",
+                    records.size(), e.getMessage());
+            return writeRowByRow(records);
+        }
+
+        log.debug("Wrote {} email log records", records.size());
+        notifyListeners(records);
+        return records.size();
+    }
+
+    /**
+     * Writes each record in its own transaction. A record the database
+     * rejects is dropped; on any other failure the database is taken to be
+     * unavailable, and that record and the rest are kept for the next flush.
+     */
+    private int writeRowByRow(List<EmailLogRecord> records) {
+        List<EmailLogRecord> written = new ArrayList<>(records.size());
+
+        for (int i = 0; i < records.size(); i++) {
+            EmailLogRecord record = records.get(i);
+            try {
+                transactionTemplate.executeWithoutResult(status -> upsert(List.of(record)));
+                written.add(record);
+            } catch (NonTransientDataAccessException e) {
+                log.error("Dropping email log record for content ID: {}, subscriber ID: {}, status: {}. Error: {}",
+                        record.contentId(), record.subscriberId(), record.status(), e.getMessage());
+            } catch (Exception e) {
+                log.error("Failed to write {} email log records. Error: {}", records.size() - i, e.getMessage());
+                requeue(records.subList(i, records.size()));
+                break;
+            }
+        }
+
+        if (!written.isEmpty()) {
+            notifyListeners(written);
+        }
+        return written.size();
+    }
+
+    private void upsert(List<EmailLogRecord> records) {
+        jdbcTemplate.batchUpdate(upsertSql, records, records.size(), (ps, record) -> {
+            ps.setLong(1, record.contentId());
+            ps.setLong(2, record.subscriberId());
+            ps.setString(3, record.recipientEmail());
+            ps.setString(4, record.status().name());
+            ps.setString(5, record.errorMessage());
+            ps.setTimestamp(6, Timestamp.valueOf(record.sentAt()));
+            ps.setInt(7, record.attempts());
+            ps.setTimestamp(8, record.nextAttemptAt() != null
+                    ? Timestamp.valueOf(record.nextAttemptAt()) : null);
+        });
+    }
+
+    private void notifyListeners(List<EmailLogRecord> records) {
+        for (Consumer<List<EmailLogRecord>> listener : flushListeners) {
+            try {
+                listener.accept(records);
+            } catch (Exception e) {
+                log.error("Email log flush listener failed. Error: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private void requeue(List<EmailLogRecord> records) {
+        synchronized (lock) {
+            if (buffer.size() + records.size() > maxPending) {
+                log.error("Email log buffer is full, dropping {} records", records.size());
+                return;
+            }
+            List<EmailLogRecord> merged = new ArrayList<>(records.size() + buffer.size());
+            merged.addAll(records);
+            merged.addAll(buffer);
+            buffer = merged;
+        }
+    }
+}
@@ -1,62 +1,90 @@
 package com.newsletter.service;
 
-import com.newsletter.model.Content;
-import com.newsletter.model.EmailLog;
-import com.newsletter.model.EmailLog.EmailStatus;
-import com.newsletter.model.Subscriber;
-import com.newsletter.repository.EmailLogRepository;
-import lombok.RequiredArgsConstructor;
+import com.newsletter.dto.Recipient;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class EmailService {
 
-    private final JavaMailSender mailSender;
-    private final EmailLogRepository emailLogRepository;
+    private final SmtpConnectionPool smtpConnectionPool;
+    private final UnsubscribeTokens unsubscribeTokens;
 
-    @Async
-    @Transactional
-    public void sendEmail(Content content, Subscriber subscriber) {
-        log.info("Sending email to: {} for content ID: {}", subscriber.getEmail(), content.getId());
+    public EmailService(SmtpConnectionPool smtpConnectionPool, UnsubscribeTokens unsubscribeTokens) {
+        this.smtpConnectionPool = smtpConnectionPool;
+        this.unsubscribeTokens = unsubscribeTokens;
+    }
 
-        EmailLog emailLog = new EmailLog();
-        emailLog.setContent(content);
-        emailLog.setSubscriber(subscriber);
-        emailLog.setRecipientEmail(subscriber.getEmail());
+    /**
+     * Sends a plain-text email over a pooled SMTP connection.
+     */
+    public void send(String to, String subject, String text) throws MessagingException {
+        log.debug("Sending email to: {}", to);
 
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(subscriber.getEmail());
-            message.setSubject(content.getSubject());
-            message.setText(formatEmailBody(content, subscriber));
+        MimeMessage message = smtpConnectionPool.createMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, StandardCharsets.UTF_8.name());
+        helper.setTo(to);
+        helper.setSubject(subject);
+        helper.setText(text);
 
-            mailSender.send(message);
+        smtpConnectionPool.send(message);
+    }
 
-            emailLog.setStatus(EmailStatus.SUCCESS);
-            log.info("Email sent successfully to: {}", subscriber.getEmail());
+    /**
+     * Parses the job's body once so each recipient only costs a few appends.
+     */
+    public MessageTemplate compileTemplate(DispatchJob job) {
+        return MessageTemplate.compile(job.getBody(), job.getTopicName(), unsubscribeTokens::url);
+    }
 
-        } catch (Exception e) {
-            log.error("Failed to send email to: {}. Error: {}", subscriber.getEmail(), e.getMessage());
-            emailLog.setStatus(EmailStatus.FAILED);
-            emailLog.setErrorMessage(e.getMessage());
+    public String formatEmailBody(DispatchJob job, Recipient recipient) {
+        MessageTemplate template = job.getTemplate();
+        if (template == null) {
+            template = compileTemplate(job);
         }
+        return template.render(recipient);
+    }
+
+    public MessageTemplate compileDigestSection(DispatchJob job) {
+        return MessageTemplate.compileSection(job.getSubject(), job.getBody(), job.getTopicName(), unsubscribeTokens::url);
+    }
 
-        emailLogRepository.save(emailLog);
+    String formatDigestSubject(List<Delivery> parts) {
+        return "Your newsletter digest: " + parts.size() + " new updates";
+    }
+
+    /**
+     * Combines the digest sections of several contents into one message.
+     * Each section is rendered for its own subscriber row, so unsubscribe
+     * links stay per topic.
+     */
+    String formatDigestBody(List<Delivery> parts) {
+        int capacity = 256;
+        for (Delivery part : parts) {
+            capacity += digestSection(part.getJob()).staticLength() + 128;
+        }
+
+        StringBuilder body = new StringBuilder(capacity)
+                .append("Hi ").append(parts.get(0).getRecipient().name())
+                .append(",\n\nHere are your latest updates.\n\n");
+        for (int i = 0; i < parts.size(); i++) {
+            if (i > 0) {
+                body.append("\n\n---\n\n");
+            }
+            Delivery part = parts.get(i);
+            digestSection(part.getJob()).renderTo(body, part.getRecipient());
+        }
+        return body.append("\n\n---\nTo unsubscribe, please contact us.").toString();
     }
 
-    private String formatEmailBody(Content content, Subscriber subscriber) {
-        return String.format(
-                "Hi %s,\n\n%s\n\n---\nTopic: %s\n\nTo unsubscribe, please contact us.",
-                subscriber.getName(),
-                content.getBody(),
-                content.getTopic().getName()
-        );
+    private MessageTemplate digestSection(DispatchJob job) {
+        MessageTemplate section = job.getDigestSection();
+        return section != null ? section : compileDigestSection(job);
     }
 }
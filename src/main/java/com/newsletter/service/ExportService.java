@@ -0,0 +1,210 @@
+package com.newsletter.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newsletter.repository.ContentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Full dumps of subscribers and delivery logs for reconciliation jobs. Rows
+ * come from a forward-only cursor with a fixed fetch size, read inside a
+ * read-only transaction (PostgreSQL only honours the fetch size with
+ * autocommit off), and each row is written to the response as soon as it is
+ * read, so heap use does not depend on the number of rows.
+ */
+@Service
+@Slf4j
+public class ExportService {
+
+    private static final String SUBSCRIBERS_SQL =
+            "SELECT s.id, s.email, s.name, s.topic_id, t.name AS topic_name, s.active, s.subscribed_at " +
+            "FROM subscribers s JOIN topics t ON t.id = s.topic_id";
+
+    private static final String EMAIL_LOGS_SQL =
+            "SELECT l.id, l.subscriber_id, l.recipient_email, l.status, l.error_message, l.attempts, l.sent_at " +
+            "FROM email_logs l WHERE l.content_id = ? ORDER BY l.id";
+
+    private final JdbcTemplate cursorTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ContentRepository contentRepository;
+    private final ObjectMapper objectMapper;
+
+    public ExportService(DataSource dataSource,
+                         PlatformTransactionManager transactionManager,
+                         ContentRepository contentRepository,
+                         ObjectMapper objectMapper,
+                         @Value("${newsletter.export.fetch-size:1000}") int fetchSize) {
+        this.cursorTemplate = new JdbcTemplate(dataSource);
+        this.cursorTemplate.setFetchSize(fetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.contentRepository = contentRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public StreamingResponseBody exportSubscribers(Long topicId, ExportFormat format) {
+        if (topicId == null) {
+            return out -> stream(out, format, SUBSCRIBERS_SQL + " ORDER BY s.id");
+        }
+        return out -> stream(out, format, SUBSCRIBERS_SQL + " WHERE s.topic_id = ? ORDER BY s.id", topicId);
+    }
+
+    public StreamingResponseBody exportEmailLogs(Long contentId, ExportFormat format) {
+        if (!contentRepository.existsById(contentId)) {
+            throw new IllegalArgumentException("Content not found with ID: " + contentId);
+        }
+        return out -> stream(out, format, EMAIL_LOGS_SQL, contentId);
+    }
+
+    private void stream(OutputStream out, ExportFormat format, String sql, Object... args) throws IOException {
+        RowWriter writer = format == ExportFormat.CSV ? new CsvRowWriter(out) : new NdjsonRowWriter(out);
+
+        Long rows;
+        try {
+            rows = transactionTemplate.execute(status -> cursorTemplate.query(sql, (ResultSetExtractor<Long>) rs -> {
+                try {
+                    writer.start(rs.getMetaData());
+                    long count = 0;
+                    while (rs.next()) {
+                        writer.row(rs);
+                        count++;
+                    }
+                    writer.finish();
+                    return count;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, args));
+        } catch (UncheckedIOException e) {
+            log.warn("Export aborted. Error: {}", e.getMessage());
+            throw e.getCause();
+        }
+
+        log.info("Exported {} rows as {}", rows, format);
+    }
+
+    private static Object value(ResultSet rs, int column) throws SQLException {
+        Object value = rs.getObject(column);
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : value;
+    }
+
+    private interface RowWriter {
+
+        void start(ResultSetMetaData metaData) throws SQLException, IOException;
+
+        void row(ResultSet rs) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+        private int columns;
+
+        private CsvRowWriter(OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void start(ResultSetMetaData metaData) throws SQLException, IOException {
+            columns = metaData.getColumnCount();
+            for (int i = 1; i <= columns; i++) {
+                if (i > 1) {
+                    writer.write(',');
+                }
+                writeField(metaData.getColumnLabel(i).toLowerCase());
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        public void row(ResultSet rs) throws SQLException, IOException {
+            for (int i = 1; i <= columns; i++) {
+                if (i > 1) {
+                    writer.write(',');
+                }
+                Object value = value(rs, i);
+                if (value != null) {
+                    writeField(value.toString());
+                }
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+
+        private void writeField(String field) throws IOException {
+            boolean quote = field.indexOf(',') >= 0 || field.indexOf('"') >= 0
+                    || field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0;
+            if (!quote) {
+                writer.write(field);
+                return;
+            }
+            writer.write('"');
+            writer.write(field.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+
+        private final OutputStream out;
+        private JsonGenerator generator;
+        private String[] names;
+
+        private NdjsonRowWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void start(ResultSetMetaData metaData) throws SQLException, IOException {
+            generator = objectMapper.createGenerator(out);
+            generator.setRootValueSeparator(null);
+            names = new String[metaData.getColumnCount()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = metaData.getColumnLabel(i + 1).toLowerCase();
+            }
+        }
+
+        @Override
+        public void row(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < names.length; i++) {
+                generator.writeFieldName(names[i]);
+                generator.writeObject(value(rs, i + 1));
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (generator != null) {
+                generator.flush();
+            }
+        }
+    }
+}
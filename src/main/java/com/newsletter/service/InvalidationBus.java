@@ -0,0 +1,194 @@
+package com.newsletter.service;
+
+import com.newsletter.config.DatabasePlatform;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Carries entity-level cache invalidations between replicas. Writers publish
+ * {@code (cache, id)} pairs; every node's listeners for that cache evict the
+ * entry once the writing transaction commits.
+ * <p>
+ * On PostgreSQL an invalidation is a {@code pg_notify} sent in the writer's
+ * transaction, so it is delivered only if the write commits, and a dedicated
+ * connection per node {@code LISTEN}s for them. The publishing node applies
+ * its own invalidations directly after commit and ignores their echo.
+ * Notifications sent while the listening connection was down are lost, so
+ * listeners are told to drop everything whenever it (re)connects. On H2 the
+ * bus is in-JVM only.
+ */
+@Component
+@Slf4j
+public class InvalidationBus {
+
+    public static final String TOPIC = "topic";
+    public static final String SUBSCRIBER = "subscriber";
+    public static final String AUDIENCE = "audience";
+
+    private static final String CHANNEL = "newsletter_invalidation";
+    private static final char SEPARATOR = '|';
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean postgres;
+    private final String nodeId;
+    private final int pollMillis;
+    private final long reconnectDelayMillis;
+
+    private final Map<String, List<Listener>> listeners = new ConcurrentHashMap<>();
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public InvalidationBus(DataSource dataSource,
+                           JdbcTemplate jdbcTemplate,
+                           DatabasePlatform databasePlatform,
+                           NodeIdentity nodeIdentity,
+                           @Value("${newsletter.invalidation.poll-ms:500}") int pollMillis,
+                           @Value("${newsletter.invalidation.reconnect-delay-ms:5000}") long reconnectDelayMillis) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.postgres = databasePlatform.isPostgres();
+        this.nodeId = nodeIdentity.getNodeId();
+        this.pollMillis = pollMillis;
+        this.reconnectDelayMillis = reconnectDelayMillis;
+    }
+
+    /**
+     * Receives invalidations for one cache.
+     */
+    public interface Listener {
+
+        void invalidate(Long id);
+
+        /**
+         * Invalidations may have been missed; drop every entry.
+         */
+        void invalidateAll();
+    }
+
+    public void subscribe(String cache, Listener listener) {
+        listeners.computeIfAbsent(cache, key -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /**
+     * Invalidates {@code id} in {@code cache} on every node once the current
+     * transaction commits, or right away when there is none.
+     */
+    public void publish(String cache, Long id) {
+        if (postgres) {
+            jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class,
+                    CHANNEL, nodeId + SEPARATOR + cache + SEPARATOR + id);
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deliver(cache, id);
+                }
+            });
+        } else {
+            deliver(cache, id);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!postgres) {
+            return;
+        }
+        running = true;
+        listenerThread = new Thread(this::listen, "invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                log.info("Listening for cache invalidations on channel: {}", CHANNEL);
+                deliverAll();
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollMillis);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Invalidation listener connection lost, reconnecting in {} ms. Error: {}",
+                        reconnectDelayMillis, e.getMessage());
+                try {
+                    Thread.sleep(reconnectDelayMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void receive(String payload) {
+        String[] parts = payload.split("\\" + SEPARATOR, 3);
+        if (parts.length != 3) {
+            log.warn("Ignoring malformed invalidation: {}", payload);
+            return;
+        }
+        if (parts[0].equals(nodeId)) {
+            return;
+        }
+        try {
+            deliver(parts[1], Long.valueOf(parts[2]));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed invalidation: {}", payload);
+        }
+    }
+
+    private void deliver(String cache, Long id) {
+        for (Listener listener : listeners.getOrDefault(cache, List.of())) {
+            try {
+                listener.invalidate(id);
+            } catch (RuntimeException e) {
+                log.error("Cache invalidation failed. Cache: {}, ID: {}, Error: {}", cache, id, e.getMessage(), e);
+            }
+        }
+    }
+
+    private void deliverAll() {
+        listeners.values().forEach(cacheListeners -> cacheListeners.forEach(Listener::invalidateAll));
+    }
+}
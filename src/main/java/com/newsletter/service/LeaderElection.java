@@ -0,0 +1,124 @@
+package com.newsletter.service;
+
+import com.newsletter.model.SchedulerLease;
+import com.newsletter.repository.SchedulerLeaseRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Elects a single scheduler leader across replicas using a lease row in
+ * {@code scheduler_leases}. The holder renews the lease well before it
+ * expires; if it dies, another node takes the lease over once it lapses.
+ * The new leader announces itself with a {@link LeadershipAcquiredEvent}
+ * naming the node it took over from. Node clocks are assumed to be
+ * NTP-synchronised.
+ */
+@Service
+@Slf4j
+public class LeaderElection {
+
+    static final String SCHEDULER_LEASE = "newsletter-scheduler";
+
+    private final SchedulerLeaseRepository schedulerLeaseRepository;
+    private final NodeIdentity nodeIdentity;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration leaseDuration;
+
+    private volatile long leaderUntilMillis;
+
+    public LeaderElection(SchedulerLeaseRepository schedulerLeaseRepository,
+                          NodeIdentity nodeIdentity,
+                          PlatformTransactionManager transactionManager,
+                          ApplicationEventPublisher eventPublisher,
+                          @Value("${newsletter.scheduler.lease-duration-ms:10000}") long leaseDurationMillis) {
+        this.schedulerLeaseRepository = schedulerLeaseRepository;
+        this.nodeIdentity = nodeIdentity;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.leaseDuration = Duration.ofMillis(leaseDurationMillis);
+    }
+
+    /**
+     * True while this node holds an unexpired scheduler lease.
+     */
+    public boolean isLeader() {
+        return System.currentTimeMillis() < leaderUntilMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${newsletter.scheduler.lease-renew-interval-ms:3000}")
+    public void renew() {
+        long startedAt = System.currentTimeMillis();
+        boolean wasLeader = isLeader();
+        String previousLeader = null;
+        boolean acquired;
+
+        try {
+            if (!wasLeader) {
+                previousLeader = schedulerLeaseRepository.findById(SCHEDULER_LEASE)
+                        .map(SchedulerLease::getOwner)
+                        .filter(owner -> !owner.equals(nodeIdentity.getNodeId()))
+                        .orElse(null);
+            }
+            acquired = tryAcquire();
+        } catch (Exception e) {
+            log.error("Failed to renew scheduler lease. Error: {}", e.getMessage());
+            return;
+        }
+
+        // Measured from before the round trip so a slow renewal can only shorten local leadership
+        leaderUntilMillis = acquired ? startedAt + leaseDuration.toMillis() : 0L;
+
+        if (acquired && !wasLeader) {
+            log.info("Node {} is now the scheduler leader, taking over from: {}",
+                    nodeIdentity.getNodeId(), previousLeader);
+            eventPublisher.publishEvent(new LeadershipAcquiredEvent(previousLeader));
+        } else if (!acquired && wasLeader) {
+            log.warn("Node {} lost scheduler leadership", nodeIdentity.getNodeId());
+        }
+    }
+
+    @PreDestroy
+    public void resign() {
+        if (!isLeader()) {
+            return;
+        }
+        leaderUntilMillis = 0L;
+        transactionTemplate.executeWithoutResult(status ->
+                schedulerLeaseRepository.release(SCHEDULER_LEASE, nodeIdentity.getNodeId(), LocalDateTime.now()));
+        log.info("Node {} resigned scheduler leadership", nodeIdentity.getNodeId());
+    }
+
+    private boolean tryAcquire() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(leaseDuration);
+
+        Integer updated = transactionTemplate.execute(status -> schedulerLeaseRepository.tryAcquire(
+                SCHEDULER_LEASE, nodeIdentity.getNodeId(), expiresAt, now));
+        if (updated != null && updated == 1) {
+            return true;
+        }
+
+        if (schedulerLeaseRepository.existsById(SCHEDULER_LEASE)) {
+            return false;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> schedulerLeaseRepository.create(
+                    SCHEDULER_LEASE, nodeIdentity.getNodeId(), expiresAt));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the lease first
+            return false;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.newsletter.service;
+
+/**
+ * Published when this node becomes the scheduler leader. The previous
+ * leader is the node whose lease was taken over, or null if there was none
+ * or this node held it last.
+ */
+public record LeadershipAcquiredEvent(String previousLeader) {
+}
@@ -0,0 +1,64 @@
+package com.newsletter.service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * Time arithmetic for content delivered at local time. The scheduled time
+ * is read as a wall-clock time in each subscriber's zone, so subscribers
+ * fall into buckets by their UTC offset at that time, and a bucket is due
+ * once the scheduled time has been reached at its offset. Offsets are in
+ * seconds; buckets with larger offsets come due first.
+ */
+final class LocalTimeBuckets {
+
+    /** Bucket cursor of local-time content none of whose buckets has been sent. */
+    static final int NONE_SENT = ZoneOffset.MAX.getTotalSeconds() + 1;
+
+    private static final ZoneOffset EARLIEST = ZoneOffset.ofHours(14);
+
+    private LocalTimeBuckets() {
+    }
+
+    static int offset(LocalDateTime localTime, ZoneId zone) {
+        return localTime.atZone(zone).getOffset().getTotalSeconds();
+    }
+
+    /**
+     * The smallest offset whose bucket is due at {@code now}.
+     */
+    static int dueFrom(LocalDateTime localTime, Instant now) {
+        long seconds = localTime.toEpochSecond(ZoneOffset.UTC) - now.getEpochSecond();
+        return (int) Math.max(ZoneOffset.MIN.getTotalSeconds(), Math.min(NONE_SENT, seconds));
+    }
+
+    /**
+     * When the bucket at the offset comes due, in server time like every
+     * other scheduled time.
+     */
+    static LocalDateTime dueAt(LocalDateTime localTime, int offsetSeconds) {
+        return LocalDateTime.ofInstant(localTime.toInstant(ZoneOffset.ofTotalSeconds(offsetSeconds)),
+                ZoneId.systemDefault());
+    }
+
+    /**
+     * When content should first fire: its scheduled time, or for local-time
+     * content the moment that time is reached in the earliest zone (UTC+14).
+     */
+    static LocalDateTime fireTime(LocalDateTime scheduledTime, Boolean localDelivery) {
+        if (scheduledTime == null || !Boolean.TRUE.equals(localDelivery)) {
+            return scheduledTime;
+        }
+        return dueAt(scheduledTime, EARLIEST.getTotalSeconds());
+    }
+
+    /**
+     * Wall-clock time in the earliest zone; local-time content scheduled at
+     * or before it has its first bucket due.
+     */
+    static LocalDateTime nowInEarliestZone() {
+        return LocalDateTime.now(EARLIEST);
+    }
+}
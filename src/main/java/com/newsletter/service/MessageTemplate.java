@@ -0,0 +1,155 @@
+package com.newsletter.service;
+
+import com.newsletter.dto.Recipient;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongFunction;
+
+/**
+ * A newsletter body compiled once per content into static text segments and
+ * per-recipient placeholders. Rendering is a single pass of appends into a
+ * per-thread buffer sized for the static text, with no format-string parsing
+ * and no entity access.
+ * <p>
+ * Bodies may use {@code {{name}}}, {@code {{email}}} and
+ * {@code {{unsubscribe_url}}} (a signed per-subscriber link built by the
+ * given function); any other {@code {{...}}} is left as written.
+ */
+public final class MessageTemplate {
+
+    private static final int MAX_RETAINED_BUFFER = 256 * 1024;
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(StringBuilder::new);
+
+    private final String[] segments;
+    private final Placeholder[] placeholders;
+    private final int staticLength;
+    private final LongFunction<String> unsubscribeUrl;
+
+    private MessageTemplate(List<String> segments, List<Placeholder> placeholders, LongFunction<String> unsubscribeUrl) {
+        this.segments = segments.toArray(new String[0]);
+        this.placeholders = placeholders.toArray(new Placeholder[0]);
+        this.staticLength = segments.stream().mapToInt(String::length).sum();
+        this.unsubscribeUrl = unsubscribeUrl;
+    }
+
+    /**
+     * Compiles the standard newsletter layout around the content body.
+     */
+    public static MessageTemplate compile(String body, String topicName, LongFunction<String> unsubscribeUrl) {
+        List<String> segments = new ArrayList<>();
+        List<Placeholder> placeholders = new ArrayList<>();
+        segments.add("Hi ");
+        placeholders.add(Placeholder.NAME);
+        StringBuilder current = new StringBuilder(",\n\n");
+
+        parseBody(body, segments, placeholders, current);
+
+        current.append("\n\n---\nTopic: ").append(topicName)
+                .append("\n\nTo unsubscribe, please contact us.");
+        segments.add(current.toString());
+
+        return new MessageTemplate(segments, placeholders, unsubscribeUrl);
+    }
+
+    /**
+     * Compiles one content's section of a digest: subject, body and topic,
+     * without the greeting and footer the digest wraps around it.
+     */
+    public static MessageTemplate compileSection(String subject, String body, String topicName,
+                                                 LongFunction<String> unsubscribeUrl) {
+        List<String> segments = new ArrayList<>();
+        List<Placeholder> placeholders = new ArrayList<>();
+        StringBuilder current = new StringBuilder(subject).append("\n\n");
+
+        parseBody(body, segments, placeholders, current);
+
+        current.append("\n\nTopic: ").append(topicName);
+        segments.add(current.toString());
+
+        return new MessageTemplate(segments, placeholders, unsubscribeUrl);
+    }
+
+    public String render(Recipient recipient) {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        buffer.ensureCapacity(staticLength + 128);
+
+        renderTo(buffer, recipient);
+
+        String rendered = buffer.toString();
+        if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+            BUFFER.remove();
+        }
+        return rendered;
+    }
+
+    public void renderTo(StringBuilder out, Recipient recipient) {
+        for (int i = 0; i < placeholders.length; i++) {
+            out.append(segments[i]);
+            appendValue(out, placeholders[i], recipient);
+        }
+        out.append(segments[segments.length - 1]);
+    }
+
+    /**
+     * Length of the template's static text, a lower bound for any rendering.
+     */
+    public int staticLength() {
+        return staticLength;
+    }
+
+    private static void parseBody(String body, List<String> segments, List<Placeholder> placeholders,
+                                  StringBuilder current) {
+        int pos = 0;
+        while (pos < body.length()) {
+            int open = body.indexOf("{{", pos);
+            int close = open < 0 ? -1 : body.indexOf("}}", open + 2);
+
+            if (open < 0 || close < 0) {
+                current.append(body, pos, body.length());
+                break;
+            }
+
+            Placeholder placeholder = Placeholder.of(body.substring(open + 2, close));
+            if (placeholder == null) {
+                current.append(body, pos, close + 2);
+            } else {
+                current.append(body, pos, open);
+                segments.add(current.toString());
+                placeholders.add(placeholder);
+                current.setLength(0);
+            }
+            pos = close + 2;
+        }
+    }
+
+    private void appendValue(StringBuilder buffer, Placeholder placeholder, Recipient recipient) {
+        switch (placeholder) {
+            case NAME -> buffer.append(recipient.name());
+            case EMAIL -> buffer.append(recipient.email());
+            case UNSUBSCRIBE_URL -> buffer.append(unsubscribeUrl.apply(recipient.subscriberId()));
+        }
+    }
+
+    private enum Placeholder {
+        NAME("name"),
+        EMAIL("email"),
+        UNSUBSCRIBE_URL("unsubscribe_url");
+
+        private final String token;
+
+        Placeholder(String token) {
+            this.token = token;
+        }
+
+        private static Placeholder of(String token) {
+            String trimmed = token.trim();
+            for (Placeholder placeholder : values()) {
+                if (placeholder.token.equals(trimmed)) {
+                    return placeholder;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -2,16 +2,30 @@ package com.newsletter.service;
 
 import com.newsletter.model.Content;
 import com.newsletter.model.Content.ContentStatus;
-import com.newsletter.model.Subscriber;
 import com.newsletter.repository.ContentRepository;
-import com.newsletter.repository.SubscriberRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @RequiredArgsConstructor
@@ -19,17 +33,41 @@ import java.util.List;
 public class NewsletterSchedulerService {
 
     private final ContentService contentService;
-    private final SubscriberRepository subscriberRepository;
     private final ContentRepository contentRepository;
-    private final EmailService emailService;
+    private final AudienceReader audienceReader;
+    private final DispatchPipeline dispatchPipeline;
+    private final OutboxService outboxService;
+    private final LeaderElection leaderElection;
+    private final NodeIdentity nodeIdentity;
+    private final SegmentIndex segmentIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Set<Long> localSends = ConcurrentHashMap.newKeySet();
+
+    @Value("${newsletter.digest.enabled:false}")
+    private boolean digestEnabled;
+
+    @Value("${newsletter.scheduler.send-timeout-ms:30000}")
+    private long sendTimeoutMillis;
+
+    @Value("${newsletter.scheduler.lease-duration-ms:10000}")
+    private long leaseDurationMillis;
 
     /**
-     * Scheduled job that runs every minute to check for due newsletters
-     * Cron: every minute
+     * Reconciliation poll for due newsletters. Content normally fires from
+     * {@link ContentTimer} within a second of its scheduled time; this slow
+     * poll on the leader only catches anything the timer missed, such as
+     * content created on another node.
      */
-    @Scheduled(cron = "0 * * * * *")
+    @Scheduled(fixedDelayString = "${newsletter.scheduler.reconcile-interval-ms:300000}",
+               initialDelayString = "${newsletter.scheduler.reconcile-interval-ms:300000}")
     @Transactional
     public void sendScheduledNewsletters() {
+        if (!leaderElection.isLeader()) {
+            log.debug("Not the scheduler leader, skipping scheduled newsletter job");
+            return;
+        }
+
         log.info("Running scheduled newsletter job at: {}", LocalDateTime.now());
 
         List<Content> dueContent = contentService.getDueContent();
@@ -40,56 +78,311 @@ public class NewsletterSchedulerService {
         }
 
         log.info("Found {} newsletters to send", dueContent.size());
+        dispatch(dueContent);
+        log.info("Scheduled newsletter job completed");
+    }
+
+    /**
+     * Keeps the heartbeat of this node's local sends fresh, so the leader
+     * does not take them over.
+     */
+    @Scheduled(fixedDelayString = "${newsletter.scheduler.heartbeat-interval-ms:3000}")
+    @Transactional
+    public void renewHeartbeats() {
+        if (!localSends.isEmpty()) {
+            contentRepository.renewHeartbeats(List.copyOf(localSends), ContentStatus.SENDING,
+                    nodeIdentity.getNodeId(), LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Resumes, on the leader, local sends whose node stopped renewing their
+     * heartbeat for longer than the send timeout, for instance because it
+     * crashed mid-send.
+     */
+    @Scheduled(fixedDelayString = "${newsletter.scheduler.stale-send-check-interval-ms:5000}")
+    @Transactional
+    public void resumeStaleSends() {
+        if (!leaderElection.isLeader()) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(sendTimeoutMillis));
+        resume(contentRepository.findStaleSends(ContentStatus.SENDING, cutoff), cutoff);
+    }
+
+    /**
+     * Resumes the sends of the leader this node took over from straight
+     * away. Its lease has expired, so once their heartbeats are as old as a
+     * lease the node is taken to be dead; a node that only lost the lease
+     * keeps renewing them and keeps its sends.
+     */
+    @EventListener
+    @Transactional
+    public void onLeadershipAcquired(LeadershipAcquiredEvent event) {
+        if (event.previousLeader() == null) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(leaseDurationMillis));
+        List<Content> sends = contentRepository.findStaleSendsClaimedBy(
+                ContentStatus.SENDING, event.previousLeader(), cutoff);
+        if (!sends.isEmpty()) {
+            log.warn("Taking over {} sends of previous scheduler leader {}", sends.size(), event.previousLeader());
+        }
+        resume(sends, cutoff);
+    }
+
+    /**
+     * Takes over each stale send with a conditional update and resumes it.
+     * The whole audience is read again, and recipients already delivered
+     * are skipped by the dispatch. With the outbox enabled, the rest of the
+     * send is enqueued there.
+     */
+    private void resume(List<Content> staleSends, LocalDateTime cutoff) {
+        LocalDateTime now = LocalDateTime.now();
+
+        for (Content content : staleSends) {
+            if (contentRepository.takeOverStaleSend(content.getId(), ContentStatus.SENDING, cutoff,
+                    nodeIdentity.getNodeId(), now) == 0) {
+                continue;
+            }
+            log.warn("Resuming send of content ID: {} claimed by node {}, whose heartbeat lapsed at {}",
+                    content.getId(), content.getClaimedBy(), content.getHeartbeatAt());
 
-        for (Content content : dueContent) {
             try {
-                sendNewsletterToSubscribers(content);
+                if (outboxService.isEnabled()) {
+                    outboxService.enqueue(content);
+                    continue;
+                }
+                DispatchJob job = new DispatchJob(content, audienceReader.forContent(content));
+                pace(job, content, Long.MAX_VALUE);
+                afterCommit(() -> track(dispatchPipeline.submit(job), job));
             } catch (Exception e) {
-                log.error("Error processing content ID: {}. Error: {}", content.getId(), e.getMessage(), e);
-                content.setStatus(ContentStatus.FAILED);
-                contentRepository.save(content);
+                log.error("Error resuming content ID: {}. Error: {}", content.getId(), e.getMessage(), e);
             }
         }
-
-        log.info("Scheduled newsletter job completed");
     }
 
+    /**
+     * Claims the content by moving it to SENDING with a conditional update, so
+     * exactly one node dispatches it. The winner either fills the outbox for
+     * the cluster to work through or, with the outbox disabled, hands it to
+     * the local dispatch pipeline once the claim has committed. The final
+     * status is recorded when all recipients have an outcome.
+     *
+     * @return false if another node had already claimed the content
+     */
     @Transactional
-    public void sendNewsletterToSubscribers(Content content) {
+    public boolean sendNewsletterToSubscribers(Content content) {
+        if (!claim(content)) {
+            return false;
+        }
+
         log.info("Processing newsletter for content ID: {}, Topic: {}",
                 content.getId(), content.getTopic().getName());
 
-        List<Subscriber> subscribers = subscriberRepository.findByTopicAndActiveTrue(content.getTopic());
+        if (outboxService.isEnabled()) {
+            outboxService.enqueue(content);
+            return true;
+        }
 
-        if (subscribers.isEmpty()) {
-            log.warn("No active subscribers found for topic: {}", content.getTopic().getName());
-            content.setStatus(ContentStatus.SENT);
-            content.setSentAt(LocalDateTime.now());
-            contentRepository.save(content);
-            return;
+        DispatchJob job = new DispatchJob(content, audienceReader.forContent(content));
+        pace(job, content, Long.MAX_VALUE);
+        afterCommit(() -> track(dispatchPipeline.submit(job), job));
+        return true;
+    }
+
+    /**
+     * Dispatches content fired together by the timer, provided each is still
+     * scheduled and actually due. Stale timer entries left by a reschedule
+     * are ignored here.
+     */
+    @Transactional
+    public void dispatchDueContents(List<Long> contentIds) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Content> due = new ArrayList<>(contentIds.size());
+
+        for (Long contentId : contentIds) {
+            Content content = contentRepository.findByIdWithTopic(contentId).orElse(null);
+            if (content == null || content.getStatus() != ContentStatus.SCHEDULED
+                    || LocalTimeBuckets.fireTime(content.getScheduledTime(), content.getLocalDelivery()).isAfter(now)) {
+                log.debug("Content ID: {} is no longer due, ignoring timer fire", contentId);
+                continue;
+            }
+            due.add(content);
         }
 
-        log.info("Sending newsletter to {} subscribers", subscribers.size());
+        dispatch(due);
+    }
 
-        int successCount = 0;
-        int failCount = 0;
+    /**
+     * Sends content that came due together. In digest mode (direct sends
+     * only) two or more contents are combined into one message per
+     * recipient email; otherwise each content is sent on its own. Segmented,
+     * multi-topic and paced content is always sent on its own, and
+     * local-time content a bucket at a time.
+     */
+    private void dispatch(List<Content> dueContent) {
+        if (digestEnabled && !outboxService.isEnabled()) {
+            List<Content> whole = dueContent.stream().filter(this::digestible).toList();
+            if (whole.size() > 1) {
+                dispatchDigest(whole);
+                dueContent = dueContent.stream().filter(content -> !digestible(content)).toList();
+            }
+        }
 
-        for (Subscriber subscriber : subscribers) {
+        for (Content content : dueContent) {
             try {
-                emailService.sendEmail(content, subscriber);
-                successCount++;
+                if (content.getLocalDelivery()) {
+                    dispatchDueBuckets(content);
+                } else if (!sendNewsletterToSubscribers(content)) {
+                    log.info("Content ID: {} was claimed by another node, skipping", content.getId());
+                }
             } catch (Exception e) {
-                log.error("Failed to send email to subscriber ID: {}. Error: {}",
-                        subscriber.getId(), e.getMessage());
-                failCount++;
+                log.error("Error processing content ID: {}. Error: {}", content.getId(), e.getMessage(), e);
+                content.setStatus(ContentStatus.FAILED);
+                contentRepository.save(content);
+            }
+        }
+    }
+
+    private boolean digestible(Content content) {
+        return content.getSegment() == null && content.getAdditionalTopicIds().isEmpty()
+                && !content.getLocalDelivery() && content.getSendWindowMinutes() == null;
+    }
+
+    /**
+     * Sends the buckets of local-time content that came due since the last
+     * run: subscribers whose UTC offset at the scheduled wall-clock time is
+     * at or above the offset where that time has now been reached. Moving
+     * the content's bucket cursor with a conditional update makes exactly
+     * one node send each bucket. The lowest bucket also moves the content to
+     * SENDING, and its outcome completes the content. The timer is then
+     * re-armed for the next bucket. With a send window, each bucket is
+     * spread over the window.
+     * <p>
+     * With the outbox enabled, each bucket is enqueued in the transaction
+     * that advances the cursor, so a crash can neither skip a bucket nor
+     * strand the content in SENDING; the outbox poll completes it after the
+     * last bucket. Otherwise the bucket goes to the local dispatch pipeline.
+     */
+    private void dispatchDueBuckets(Content content) {
+        Long contentId = content.getId();
+        LocalDateTime localTime = content.getScheduledTime();
+        ZoneId serverZone = ZoneId.systemDefault();
+        int cursor = content.getBucketCursor();
+        int dueFrom = LocalTimeBuckets.dueFrom(localTime, Instant.now());
+        NavigableSet<Integer> offsets = segmentIndex.offsets(localTime, serverZone);
+
+        if (dueFrom < cursor) {
+            boolean last = offsets.lower(dueFrom) == null;
+            ContentStatus status = last ? ContentStatus.SENDING : ContentStatus.SCHEDULED;
+            if (contentRepository.advanceBucketCursor(contentId, cursor, dueFrom,
+                    ContentStatus.SCHEDULED, status, nodeIdentity.getNodeId(), LocalDateTime.now()) == 0) {
+                log.info("Buckets of content ID: {} were claimed by another node, skipping", contentId);
+                return;
+            }
+
+            Roaring64NavigableMap members = segmentIndex.withOffsetBetween(
+                    localTime, serverZone, last ? Integer.MIN_VALUE : dueFrom, cursor);
+            log.info("Sending {} bucket of content ID: {} to {} subscribers at UTC offsets [{}, {}) seconds",
+                    last ? "the last" : "a", contentId, members.getLongCardinality(),
+                    last ? "-" : dueFrom, cursor);
+            AudienceSource bucket = audienceReader.forContent(content).filter(members::contains);
+            if (outboxService.isEnabled()) {
+                outboxService.enqueueBucket(content, bucket);
+            } else {
+                sendBucket(content, bucket, members.getLongCardinality(), last);
+            }
+            if (last) {
+                return;
+            }
+            cursor = dueFrom;
+        }
+
+        // With no subscriber left below the cursor, fire once the lowest
+        // possible offset is due, so the content is still completed
+        Integer next = offsets.lower(cursor);
+        int nextOffset = next != null ? next : ZoneOffset.MIN.getTotalSeconds();
+        eventPublisher.publishEvent(new ContentScheduleChangedEvent(
+                contentId, LocalTimeBuckets.dueAt(localTime, nextOffset)));
+    }
+
+    private void sendBucket(Content content, AudienceSource bucket, long size, boolean last) {
+        Long contentId = content.getId();
+        DispatchJob job = new DispatchJob(content, bucket);
+        pace(job, content, size);
+        if (last) {
+            afterCommit(() -> track(dispatchPipeline.submit(job), job));
+            return;
+        }
+        afterCommit(() -> dispatchPipeline.submit(job).whenComplete((result, error) -> {
+            if (error != null) {
+                log.error("Bucket dispatch failed for content ID: {}. Error: {}", contentId, error.getMessage());
+            } else {
+                log.info("Bucket of content ID: {} sent. Success: {}, Failed: {}, Already delivered: {}",
+                        contentId, result.succeeded(), result.failed(), result.skipped());
             }
+        }));
+    }
+
+    private void dispatchDigest(List<Content> dueContent) {
+        List<DispatchJob> parts = new ArrayList<>(dueContent.size());
+        Set<Long> topicIds = new LinkedHashSet<>();
+
+        for (Content content : dueContent) {
+            if (!claim(content)) {
+                log.info("Content ID: {} was claimed by another node, skipping", content.getId());
+                continue;
+            }
+            topicIds.add(content.getTopic().getId());
+            parts.add(new DispatchJob(content, audienceReader.forContent(content)));
         }
 
-        content.setStatus(ContentStatus.SENT);
-        content.setSentAt(LocalDateTime.now());
-        contentRepository.save(content);
+        if (parts.isEmpty()) {
+            return;
+        }
+        if (parts.size() == 1) {
+            DispatchJob job = parts.get(0);
+            afterCommit(() -> track(dispatchPipeline.submit(job), job));
+            return;
+        }
 
-        log.info("Newsletter sent successfully. Success: {}, Failed: {}", successCount, failCount);
+        log.info("Sending {} due contents as a digest across topic IDs: {}", parts.size(), topicIds);
+        DigestJob digest = new DigestJob(parts, audienceReader.forTopics(topicIds));
+        afterCommit(() -> {
+            dispatchPipeline.submitDigest(digest);
+            parts.forEach(job -> track(job.getCompletion(), job));
+        });
+    }
+
+    /**
+     * Sizes a job with a send window, so the pipeline can spread it evenly.
+     * The audience count is capped at {@code upperBound} when the job only
+     * reaches part of it.
+     */
+    private void pace(DispatchJob job, Content content, long upperBound) {
+        if (job.getSendWindow() != null) {
+            job.setExpectedRecipients(Math.min(audienceReader.countAudience(content), upperBound));
+        }
+    }
+
+    private boolean claim(Content content) {
+        return contentRepository.claimForSending(
+                content.getId(), content.getStatus(), ContentStatus.SENDING,
+                nodeIdentity.getNodeId(), LocalDateTime.now()) > 0;
+    }
+
+    private void track(CompletableFuture<DispatchResult> completion, DispatchJob job) {
+        localSends.add(job.getContentId());
+        completion.whenComplete((result, error) -> {
+            localSends.remove(job.getContentId());
+            if (error != null) {
+                log.error("Dispatch failed for content ID: {}. Error: {}", job.getContentId(), error.getMessage());
+                contentService.failDispatch(job.getContentId());
+            } else {
+                contentService.completeDispatch(result);
+            }
+        });
     }
 
     /**
@@ -106,10 +399,29 @@ public class NewsletterSchedulerService {
             throw new IllegalArgumentException("Content has already been sent");
         }
 
+        if (content.getStatus() == ContentStatus.SENDING) {
+            throw new IllegalArgumentException("Content is already being sent");
+        }
+
         if (content.getStatus() == ContentStatus.CANCELLED) {
             throw new IllegalArgumentException("Cannot send cancelled content");
         }
 
-        sendNewsletterToSubscribers(content);
+        if (!sendNewsletterToSubscribers(content)) {
+            throw new IllegalArgumentException("Content is already being sent");
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
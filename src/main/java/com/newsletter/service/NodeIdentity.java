@@ -0,0 +1,35 @@
+package com.newsletter.service;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.UUID;
+
+/**
+ * Identifies this service instance when it claims shared work.
+ */
+@Component
+@Getter
+@Slf4j
+public class NodeIdentity {
+
+    private final String nodeId;
+
+    public NodeIdentity(@Value("${newsletter.node-id:}") String configuredNodeId) {
+        this.nodeId = configuredNodeId.isBlank() ? generateNodeId() : configuredNodeId;
+        log.info("Running as node: {}", nodeId);
+    }
+
+    private static String generateNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
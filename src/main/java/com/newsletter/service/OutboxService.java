@@ -0,0 +1,308 @@
+package com.newsletter.service;
+
+import com.newsletter.dto.Recipient;
+import com.newsletter.model.Content;
+import com.newsletter.model.Content.ContentStatus;
+import com.newsletter.model.DeliveryJob;
+import com.newsletter.model.DeliveryJob.DeliveryJobStatus;
+import com.newsletter.model.EmailLog.EmailStatus;
+import com.newsletter.repository.ContentRepository;
+import com.newsletter.repository.DeliveryJobRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Durable, multi-node send path. When content comes due its audience is
+ * copied into {@code delivery_jobs} with one set-based insert; every node then
+ * claims PENDING jobs in batches with {@code SELECT ... FOR UPDATE SKIP LOCKED}
+ * and feeds them through its local {@link DispatchPipeline}. Jobs are marked
+ * SENT or FAILED once their email log rows have been committed, and claims
+ * left behind by a dead node are released after the claim timeout. Content
+ * with a send window is claimed only as fast as its {@link SendWindow}
+ * releases jobs, so the whole cluster keeps to the window.
+ */
+@Service
+@Slf4j
+public class OutboxService {
+
+    private static final long MIN_PAUSE_MILLIS = 50L;
+    private static final long MAX_PAUSE_MILLIS = 1000L;
+
+    private static final String MARK_DELIVERED_SQL =
+            "UPDATE delivery_jobs SET status = ? WHERE content_id = ? AND subscriber_id = ? AND status = 'CLAIMED'";
+
+    private final DeliveryJobRepository deliveryJobRepository;
+    private final ContentRepository contentRepository;
+    private final ContentService contentService;
+    private final DispatchPipeline dispatchPipeline;
+    private final EmailLogWriter emailLogWriter;
+    private final NodeIdentity nodeIdentity;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AudienceReader audienceReader;
+
+    private final Set<Long> activeContentIds = ConcurrentHashMap.newKeySet();
+
+    @Value("${newsletter.outbox.enabled:false}")
+    private boolean enabled;
+
+    @Value("${newsletter.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${newsletter.outbox.claim-timeout-ms:300000}")
+    private long claimTimeoutMillis;
+
+    public OutboxService(DeliveryJobRepository deliveryJobRepository,
+                         ContentRepository contentRepository,
+                         ContentService contentService,
+                         DispatchPipeline dispatchPipeline,
+                         EmailLogWriter emailLogWriter,
+                         NodeIdentity nodeIdentity,
+                         JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager,
+                         AudienceReader audienceReader) {
+        this.deliveryJobRepository = deliveryJobRepository;
+        this.contentRepository = contentRepository;
+        this.contentService = contentService;
+        this.dispatchPipeline = dispatchPipeline;
+        this.emailLogWriter = emailLogWriter;
+        this.nodeIdentity = nodeIdentity;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.audienceReader = audienceReader;
+    }
+
+    @PostConstruct
+    public void registerFlushHook() {
+        if (enabled) {
+            emailLogWriter.onFlush(this::markDelivered);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Copies the content's active audience into the outbox and marks the
+     * send as the outbox's to complete. Must run in the transaction that
+     * moves the content to SENDING.
+     */
+    public int enqueue(Content content) {
+        contentRepository.markViaOutbox(content.getId(), LocalDateTime.now());
+        int requeued = deliveryJobRepository.requeueFailed(
+                content.getId(), DeliveryJobStatus.FAILED, DeliveryJobStatus.PENDING);
+        int enqueued = content.getSegment() == null && content.getAdditionalTopicIds().isEmpty()
+                ? deliveryJobRepository.enqueueAudience(content.getId(), content.getTopic().getId())
+                : enqueueSelected(content.getId(), audienceReader.forContent(content));
+        log.info("Enqueued {} delivery jobs and requeued {} failed ones for content ID: {}",
+                enqueued, requeued, content.getId());
+        return enqueued + requeued;
+    }
+
+    /**
+     * Copies one due bucket of local-time content into the outbox. Must run
+     * in the transaction that advances the content's bucket cursor, so a
+     * bucket is either claimed and enqueued or neither.
+     */
+    public int enqueueBucket(Content content, AudienceSource bucket) {
+        contentRepository.markViaOutbox(content.getId(), LocalDateTime.now());
+        int enqueued = enqueueSelected(content.getId(), bucket);
+        log.info("Enqueued {} delivery jobs for a bucket of content ID: {}", enqueued, content.getId());
+        return enqueued;
+    }
+
+    /**
+     * Segmented, multi-topic and bucketed audiences are resolved by the
+     * {@link AudienceReader} (which also removes duplicate emails across
+     * topics) and enqueued a chunk of subscriber ids at a time.
+     */
+    private int enqueueSelected(Long contentId, AudienceSource audience) {
+        AtomicInteger enqueued = new AtomicInteger();
+        audience.forEachChunk(chunk -> enqueued.addAndGet(
+                deliveryJobRepository.enqueueSubscribers(contentId,
+                        chunk.stream().map(Recipient::subscriberId).toList())));
+        return enqueued.get();
+    }
+
+    /**
+     * Starts a local dispatch for every enqueued content that still has
+     * pending jobs, and completes SENDING content whose jobs have all
+     * finished. Local-time content stays SCHEDULED while its earlier buckets
+     * are sent, and is only completed once its last bucket has moved it to
+     * SENDING. Content sent through a node's local pipeline has no jobs and
+     * is left to that pipeline to complete.
+     */
+    @Scheduled(fixedDelayString = "${newsletter.outbox.poll-interval-ms:2000}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+
+        releaseExpiredClaims();
+
+        for (Content content : contentRepository.findByStatusInViaOutboxWithTopic(
+                List.of(ContentStatus.SCHEDULED, ContentStatus.SENDING))) {
+            Long contentId = content.getId();
+            if (activeContentIds.contains(contentId)) {
+                continue;
+            }
+
+            if (deliveryJobRepository.countByContentIdAndStatus(contentId, DeliveryJobStatus.PENDING) > 0) {
+                startDispatch(content);
+            } else if (content.getStatus() == ContentStatus.SENDING
+                    && deliveryJobRepository.countByContentIdAndStatusIn(contentId,
+                    List.of(DeliveryJobStatus.PENDING, DeliveryJobStatus.CLAIMED)) == 0) {
+                completeContent(contentId);
+            }
+        }
+    }
+
+    private void startDispatch(Content content) {
+        Long contentId = content.getId();
+        activeContentIds.add(contentId);
+        SendWindow window = content.getSendWindowMinutes() == null || content.getEnqueuedAt() == null
+                ? null
+                : new SendWindow(content.getEnqueuedAt(), Duration.ofMinutes(content.getSendWindowMinutes()));
+
+        DispatchJob job = new DispatchJob(content, new AudienceSource() {
+            @Override
+            public long forEachChunk(Consumer<List<Recipient>> handler) {
+                return window == null ? drainClaims(contentId, handler) : drainPaced(contentId, window, handler);
+            }
+
+            @Override
+            public void alreadyDelivered(List<Recipient> recipients) {
+                markAlreadySent(contentId, recipients);
+            }
+
+            @Override
+            public boolean isPaced() {
+                return window != null;
+            }
+        });
+        dispatchPipeline.submit(job).whenComplete((result, error) -> {
+            activeContentIds.remove(contentId);
+            if (error != null) {
+                log.error("Outbox dispatch failed for content ID: {}. Error: {}", contentId, error.getMessage());
+            } else {
+                log.info("Node {} finished its share of content ID: {}. Success: {}, Failed: {}",
+                        nodeIdentity.getNodeId(), contentId, result.succeeded(), result.failed());
+            }
+        });
+    }
+
+    private long drainClaims(Long contentId, Consumer<List<Recipient>> handler) {
+        long total = 0L;
+        List<Recipient> batch;
+        while (!(batch = claimBatch(contentId, batchSize)).isEmpty()) {
+            handler.accept(batch);
+            total += batch.size();
+        }
+        return total;
+    }
+
+    /**
+     * Claims the content's jobs as its send window releases them, counting
+     * the claims of every node, and sleeps in between until none is pending.
+     */
+    private long drainPaced(Long contentId, SendWindow window, Consumer<List<Recipient>> handler) {
+        long total = 0L;
+        long pending;
+        while ((pending = deliveryJobRepository.countByContentIdAndStatus(contentId, DeliveryJobStatus.PENDING)) > 0) {
+            long claimed = deliveryJobRepository.countByContentIdAndClaimedAtGreaterThanEqual(
+                    contentId, window.start());
+            LocalDateTime now = LocalDateTime.now();
+            long claimable = Math.min(batchSize, window.claimable(pending, claimed, now));
+
+            List<Recipient> batch = claimable > 0 ? claimBatch(contentId, (int) claimable) : List.of();
+            if (batch.isEmpty()) {
+                pause(window.untilNext(pending, claimed, now));
+                continue;
+            }
+            handler.accept(batch);
+            total += batch.size();
+        }
+        return total;
+    }
+
+    private static void pause(Duration duration) {
+        try {
+            Thread.sleep(Math.max(MIN_PAUSE_MILLIS, Math.min(MAX_PAUSE_MILLIS, duration.toMillis())));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while pacing a send", e);
+        }
+    }
+
+    private List<Recipient> claimBatch(Long contentId, int limit) {
+        return transactionTemplate.execute(status -> {
+            List<DeliveryJob> jobs = deliveryJobRepository.findClaimable(
+                    contentId, DeliveryJobStatus.PENDING, PageRequest.of(0, limit));
+
+            if (jobs.isEmpty()) {
+                return List.of();
+            }
+
+            List<Long> ids = new ArrayList<>(jobs.size());
+            List<Recipient> recipients = new ArrayList<>(jobs.size());
+            for (DeliveryJob job : jobs) {
+                ids.add(job.getId());
+                recipients.add(new Recipient(job.getSubscriberId(), job.getRecipientEmail(), job.getRecipientName()));
+            }
+
+            deliveryJobRepository.markClaimed(ids, DeliveryJobStatus.CLAIMED,
+                    nodeIdentity.getNodeId(), LocalDateTime.now());
+            log.debug("Node {} claimed {} delivery jobs for content ID: {}",
+                    nodeIdentity.getNodeId(), ids.size(), contentId);
+            return recipients;
+        });
+    }
+
+    private void markDelivered(List<EmailLogRecord> records) {
+        jdbcTemplate.batchUpdate(MARK_DELIVERED_SQL, records, records.size(), (ps, record) -> {
+            ps.setString(1, record.status() == EmailStatus.SUCCESS
+                    ? DeliveryJobStatus.SENT.name() : DeliveryJobStatus.FAILED.name());
+            ps.setLong(2, record.contentId());
+            ps.setLong(3, record.subscriberId());
+        });
+    }
+
+    private void markAlreadySent(Long contentId, List<Recipient> recipients) {
+        jdbcTemplate.batchUpdate(MARK_DELIVERED_SQL, recipients, recipients.size(), (ps, recipient) -> {
+            ps.setString(1, DeliveryJobStatus.SENT.name());
+            ps.setLong(2, contentId);
+            ps.setLong(3, recipient.subscriberId());
+        });
+    }
+
+    private void releaseExpiredClaims() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(claimTimeoutMillis));
+        Integer released = transactionTemplate.execute(status -> deliveryJobRepository.releaseExpiredClaims(
+                DeliveryJobStatus.PENDING, DeliveryJobStatus.CLAIMED, cutoff));
+        if (released != null && released > 0) {
+            log.warn("Released {} expired delivery job claims", released);
+        }
+    }
+
+    private void completeContent(Long contentId) {
+        long sent = deliveryJobRepository.countByContentIdAndStatus(contentId, DeliveryJobStatus.SENT);
+        long failed = deliveryJobRepository.countByContentIdAndStatus(contentId, DeliveryJobStatus.FAILED);
+        contentService.completeDispatch(new DispatchResult(contentId, sent, failed, 0L));
+    }
+}
@@ -0,0 +1,102 @@
+package com.newsletter.service;
+
+import com.newsletter.dto.StageStatsDTO;
+import lombok.extern.slf4j.Slf4j;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * A bounded queue drained by a fixed number of workers. {@link #put} blocks
+ * while the queue is full, so a slow stage pushes back on the stage feeding it.
+ */
+@Slf4j
+class PipelineStage<T> {
+
+    private static final long POLL_TIMEOUT_MILLIS = 500L;
+
+    private final String name;
+    private final int parallelism;
+    private final BlockingQueue<T> queue;
+    private final Consumer<T> handler;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong processed = new AtomicLong();
+    private volatile boolean running;
+
+    PipelineStage(String name, int parallelism, int queueCapacity, Consumer<T> handler) {
+        this.name = name;
+        this.parallelism = parallelism;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.handler = handler;
+    }
+
+    void start(Executor executor) {
+        running = true;
+        for (int i = 0; i < parallelism; i++) {
+            executor.execute(this::work);
+        }
+        log.info("Started pipeline stage '{}' with {} workers", name, parallelism);
+    }
+
+    /**
+     * Stops the workers once they finish the item in hand.
+     *
+     * @return the items still queued, which will not be processed
+     */
+    List<T> stop() {
+        running = false;
+        List<T> dropped = new ArrayList<>();
+        queue.drainTo(dropped);
+        return dropped;
+    }
+
+    void put(T item) {
+        if (!running) {
+            throw new IllegalStateException("Pipeline stage '" + name + "' is stopped");
+        }
+        try {
+            queue.put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing to pipeline stage '" + name + "'", e);
+        }
+    }
+
+    StageStatsDTO stats() {
+        return new StageStatsDTO(name, parallelism, queue.size(),
+                queue.size() + queue.remainingCapacity(), active.get(), processed.get());
+    }
+
+    private void work() {
+        while (running) {
+            T item;
+            try {
+                item = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            if (item == null) {
+                continue;
+            }
+
+            active.incrementAndGet();
+            try {
+                handler.accept(item);
+            } catch (Exception e) {
+                log.error("Pipeline stage '{}' failed to process item. Error: {}", name, e.getMessage(), e);
+            } finally {
+                active.decrementAndGet();
+                processed.incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.newsletter.service;
+
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.internet.AddressException;
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSenderFailedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides whether a failed delivery is worth retrying and when.
+ * <p>
+ * SMTP replies in the 4xx range (mailbox busy, greylisting, rate limits) and
+ * connection-level errors are transient; 5xx replies, malformed addresses and
+ * rejected credentials are permanent. Retry delays grow exponentially from the
+ * initial backoff up to the cap, with equal jitter so a batch that failed
+ * together does not retry together.
+ */
+@Component
+public class RetryPolicy {
+
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    public RetryPolicy(@Value("${newsletter.retry.max-attempts:5}") int maxAttempts,
+                       @Value("${newsletter.retry.initial-backoff-ms:60000}") long initialBackoffMillis,
+                       @Value("${newsletter.retry.max-backoff-ms:3600000}") long maxBackoffMillis) {
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    public boolean isTransient(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            int code = smtpReturnCode(cause);
+            if (code > 0) {
+                return code >= 400 && code < 500;
+            }
+            if (cause instanceof AddressException || cause instanceof AuthenticationFailedException) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param attempt the attempt that just failed, starting at 1
+     */
+    public boolean canRetry(int attempt) {
+        return attempt < maxAttempts;
+    }
+
+    /**
+     * @param attempt the attempt that just failed, starting at 1
+     */
+    public Duration backoff(int attempt) {
+        int exponent = Math.min(Math.max(attempt - 1, 0), 30);
+        long delay = Math.min(maxBackoffMillis, initialBackoffMillis << exponent);
+        long half = delay / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(half + 1));
+    }
+
+    private static int smtpReturnCode(Throwable error) {
+        if (error instanceof SMTPAddressFailedException e) {
+            return e.getReturnCode();
+        }
+        if (error instanceof SMTPSenderFailedException e) {
+            return e.getReturnCode();
+        }
+        if (error instanceof SMTPSendFailedException e) {
+            return e.getReturnCode();
+        }
+        return -1;
+    }
+}
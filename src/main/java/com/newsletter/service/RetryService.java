@@ -0,0 +1,172 @@
+package com.newsletter.service;
+
+import com.newsletter.dto.Recipient;
+import com.newsletter.model.Content;
+import com.newsletter.model.EmailLog;
+import com.newsletter.model.EmailLog.EmailStatus;
+import com.newsletter.repository.ContentRepository;
+import com.newsletter.repository.EmailLogRepository;
+import com.newsletter.repository.SubscriberRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Low-priority lane for deliveries that failed transiently. Each scan claims
+ * a batch of due RETRY rows from the {@code (status, next_attempt_at)} index
+ * with {@code SKIP LOCKED}, pushes their due time forward as a claim, and
+ * re-sends them through the {@link DispatchPipeline}. A scan is skipped while
+ * any first-attempt send is running on this node, and only one retry batch is
+ * in flight at a time, so retries never compete with new sends.
+ */
+@Service
+@Slf4j
+public class RetryService {
+
+    private final EmailLogRepository emailLogRepository;
+    private final SubscriberRepository subscriberRepository;
+    private final ContentRepository contentRepository;
+    private final ContentService contentService;
+    private final DispatchPipeline dispatchPipeline;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicBoolean batchInFlight = new AtomicBoolean();
+
+    @Value("${newsletter.retry.batch-size:200}")
+    private int batchSize;
+
+    @Value("${newsletter.retry.claim-timeout-ms:300000}")
+    private long claimTimeoutMillis;
+
+    public RetryService(EmailLogRepository emailLogRepository,
+                        SubscriberRepository subscriberRepository,
+                        ContentRepository contentRepository,
+                        ContentService contentService,
+                        DispatchPipeline dispatchPipeline,
+                        PlatformTransactionManager transactionManager) {
+        this.emailLogRepository = emailLogRepository;
+        this.subscriberRepository = subscriberRepository;
+        this.contentRepository = contentRepository;
+        this.contentService = contentService;
+        this.dispatchPipeline = dispatchPipeline;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${newsletter.retry.poll-interval-ms:5000}")
+    public void retryDue() {
+        if (dispatchPipeline.isBusy() || !batchInFlight.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            List<RetryBatch> batches = transactionTemplate.execute(status -> claimDue());
+            if (batches == null || batches.isEmpty()) {
+                batchInFlight.set(false);
+                return;
+            }
+
+            List<CompletableFuture<DispatchResult>> completions = new ArrayList<>();
+            for (RetryBatch batch : batches) {
+                submit(batch).ifPresent(completions::add);
+            }
+            CompletableFuture.allOf(completions.toArray(new CompletableFuture[0]))
+                    .whenComplete((ignored, error) -> batchInFlight.set(false));
+        } catch (Exception e) {
+            batchInFlight.set(false);
+            log.error("Retry scan failed. Error: {}", e.getMessage(), e);
+        }
+    }
+
+    private List<RetryBatch> claimDue() {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailLog> due = emailLogRepository.findDueForRetry(EmailStatus.RETRY, now, PageRequest.of(0, batchSize));
+        if (due.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> logIds = new ArrayList<>(due.size());
+        List<Long> subscriberIds = new ArrayList<>(due.size());
+        for (EmailLog emailLog : due) {
+            logIds.add(emailLog.getId());
+            subscriberIds.add(emailLog.getSubscriber().getId());
+        }
+        emailLogRepository.deferRetries(logIds, now.plus(Duration.ofMillis(claimTimeoutMillis)));
+
+        Map<Long, Recipient> recipients = new HashMap<>();
+        for (Recipient recipient : subscriberRepository.findActiveRecipientsByIdIn(subscriberIds)) {
+            recipients.put(recipient.subscriberId(), recipient);
+        }
+
+        Map<Long, RetryBatch> batches = new LinkedHashMap<>();
+        List<Long> abandoned = new ArrayList<>();
+        for (EmailLog emailLog : due) {
+            Recipient recipient = recipients.get(emailLog.getSubscriber().getId());
+            if (recipient == null) {
+                abandoned.add(emailLog.getId());
+                continue;
+            }
+            batches.computeIfAbsent(emailLog.getContent().getId(), RetryBatch::new)
+                    .add(recipient, emailLog.getAttempts() != null ? emailLog.getAttempts() : 1);
+        }
+
+        if (!abandoned.isEmpty()) {
+            emailLogRepository.abandonRetries(abandoned, EmailStatus.FAILED, "Subscriber is no longer active");
+        }
+        log.info("Claimed {} due retries across {} contents", due.size() - abandoned.size(), batches.size());
+        return new ArrayList<>(batches.values());
+    }
+
+    private Optional<CompletableFuture<DispatchResult>> submit(RetryBatch batch) {
+        Optional<Content> content = contentRepository.findByIdWithTopic(batch.contentId);
+        if (content.isEmpty()) {
+            log.warn("Dropping retries for missing content ID: {}", batch.contentId);
+            return Optional.empty();
+        }
+
+        AudienceSource source = handler -> {
+            handler.accept(batch.recipients);
+            return batch.recipients.size();
+        };
+        DispatchJob job = DispatchJob.retry(content.get(), source, batch.priorAttempts);
+
+        return Optional.of(dispatchPipeline.submit(job).whenComplete((result, error) -> {
+            if (error != null) {
+                log.error("Retry batch failed for content ID: {}. Error: {}", batch.contentId, error.getMessage());
+            } else {
+                log.info("Retried content ID: {}. Success: {}, Failed: {}",
+                        batch.contentId, result.succeeded(), result.failed());
+                contentService.completeRetry(result);
+            }
+        }));
+    }
+
+    private static final class RetryBatch {
+
+        private final Long contentId;
+        private final List<Recipient> recipients = new ArrayList<>();
+        private final Map<Long, Integer> priorAttempts = new HashMap<>();
+
+        private RetryBatch(Long contentId) {
+            this.contentId = contentId;
+        }
+
+        private void add(Recipient recipient, int attempts) {
+            recipients.add(recipient);
+            priorAttempts.put(recipient.subscriberId(), attempts);
+        }
+    }
+}
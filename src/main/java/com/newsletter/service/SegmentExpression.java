@@ -0,0 +1,313 @@
+package com.newsletter.service;
+
+import com.newsletter.model.Subscriber.EngagementTier;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * A boolean expression over subscriber attributes that narrows a topic's
+ * audience, for example
+ * {@code locale:en AND (tier:high OR tag:beta) AND NOT signup:2024-01}.
+ * <p>
+ * Terms are {@code locale:<language tag>}, {@code tier:<high|medium|low>},
+ * {@code tag:<tag>} and {@code signup:<yyyy-MM>} (the month the subscriber
+ * signed up). Operators are {@code NOT}, {@code AND} and {@code OR}, in
+ * that order of precedence, and parentheses group. Terms and operators are
+ * case-insensitive.
+ */
+public final class SegmentExpression {
+
+    private static final Pattern LOCALE = Pattern.compile("[a-z]{2,3}(-[a-z0-9]{2,8})*");
+    private static final Pattern TAG = Pattern.compile("[a-z0-9][a-z0-9_-]{0,49}");
+
+    private final Node root;
+
+    private SegmentExpression(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the text is not a valid expression
+     */
+    public static SegmentExpression parse(String text) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("Segment must not be empty");
+        }
+        Parser parser = new Parser(tokenize(text));
+        Node root = parser.or();
+        if (parser.hasNext()) {
+            throw invalid("unexpected '" + parser.peek() + "'");
+        }
+        return new SegmentExpression(root);
+    }
+
+    /**
+     * Validates a segment given with content and returns it in canonical
+     * form, or null when none was given.
+     */
+    public static String canonical(String text) {
+        return text == null || text.isBlank() ? null : parse(text).toString();
+    }
+
+    /**
+     * Key of the index bitmap holding subscribers whose attribute has the
+     * given value. Values are matched case-insensitively.
+     */
+    static String key(String attribute, String value) {
+        return attribute + ":" + value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Evaluates the expression to a new bitmap of subscriber ids. Terms are
+     * looked up through {@code terms}, which must not return null; NOT is
+     * taken relative to {@code universe}. Neither is modified.
+     */
+    public Roaring64NavigableMap evaluate(Function<String, Roaring64NavigableMap> terms,
+                                          Roaring64NavigableMap universe) {
+        return root.evaluate(terms, universe);
+    }
+
+    @Override
+    public String toString() {
+        return root.toString();
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        int pos = 0;
+        while (pos < text.length()) {
+            char c = text.charAt(pos);
+            if (Character.isWhitespace(c)) {
+                pos++;
+            } else if (c == '(' || c == ')') {
+                tokens.add(String.valueOf(c));
+                pos++;
+            } else {
+                int end = pos;
+                while (end < text.length() && !Character.isWhitespace(text.charAt(end))
+                        && text.charAt(end) != '(' && text.charAt(end) != ')') {
+                    end++;
+                }
+                tokens.add(text.substring(pos, end));
+                pos = end;
+            }
+        }
+        return tokens;
+    }
+
+    private static Node term(String token) {
+        int colon = token.indexOf(':');
+        if (colon < 0) {
+            throw invalid("expected a term such as locale:en, found '" + token + "'");
+        }
+        String attribute = token.substring(0, colon).toLowerCase(Locale.ROOT);
+        String value = token.substring(colon + 1).toLowerCase(Locale.ROOT);
+
+        switch (attribute) {
+            case "locale" -> {
+                value = value.replace('_', '-');
+                if (!LOCALE.matcher(value).matches()) {
+                    throw invalid("'" + token + "' is not a language tag");
+                }
+            }
+            case "tier" -> {
+                try {
+                    EngagementTier.valueOf(value.toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    throw invalid("tier must be one of high, medium or low, found '" + token + "'");
+                }
+            }
+            case "tag" -> {
+                if (!TAG.matcher(value).matches()) {
+                    throw invalid("'" + token + "' is not a valid tag");
+                }
+            }
+            case "signup" -> {
+                try {
+                    YearMonth.parse(value);
+                } catch (DateTimeParseException e) {
+                    throw invalid("signup must be a month such as 2024-01, found '" + token + "'");
+                }
+            }
+            default -> throw invalid("unknown attribute '" + attribute + "'; use locale, tier, tag or signup");
+        }
+        return new Term(key(attribute, value));
+    }
+
+    private static IllegalArgumentException invalid(String reason) {
+        return new IllegalArgumentException("Invalid segment: " + reason);
+    }
+
+    private static Roaring64NavigableMap copy(Roaring64NavigableMap bitmap) {
+        Roaring64NavigableMap copy = new Roaring64NavigableMap();
+        copy.or(bitmap);
+        return copy;
+    }
+
+    /**
+     * Recursive descent over the tokens: {@code or := and (OR and)*},
+     * {@code and := not (AND not)*}, {@code not := NOT not | ( or ) | term}.
+     */
+    private static final class Parser {
+
+        private final List<String> tokens;
+        private int pos;
+
+        private Parser(List<String> tokens) {
+            this.tokens = tokens;
+        }
+
+        private boolean hasNext() {
+            return pos < tokens.size();
+        }
+
+        private String peek() {
+            return tokens.get(pos);
+        }
+
+        private boolean accept(String keyword) {
+            if (hasNext() && peek().equalsIgnoreCase(keyword)) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private Node or() {
+            Node node = and();
+            while (accept("OR")) {
+                node = new Or(node, and());
+            }
+            return node;
+        }
+
+        private Node and() {
+            Node node = not();
+            while (accept("AND")) {
+                node = new And(node, not());
+            }
+            return node;
+        }
+
+        private Node not() {
+            if (!hasNext()) {
+                throw invalid("expression ends early");
+            }
+            if (accept("NOT")) {
+                return new Not(not());
+            }
+            if (accept("(")) {
+                Node node = or();
+                if (!accept(")")) {
+                    throw invalid("missing ')'");
+                }
+                return node;
+            }
+            String token = peek();
+            if (token.equals(")") || token.equalsIgnoreCase("AND") || token.equalsIgnoreCase("OR")) {
+                throw invalid("unexpected '" + token + "'");
+            }
+            pos++;
+            return term(token);
+        }
+    }
+
+    private interface Node {
+
+        Roaring64NavigableMap evaluate(Function<String, Roaring64NavigableMap> terms, Roaring64NavigableMap universe);
+
+        int precedence();
+
+        default String nested(Node child) {
+            return child.precedence() < precedence() ? "(" + child + ")" : child.toString();
+        }
+    }
+
+    private record Term(String key) implements Node {
+
+        @Override
+        public Roaring64NavigableMap evaluate(Function<String, Roaring64NavigableMap> terms,
+                                              Roaring64NavigableMap universe) {
+            return copy(terms.apply(key));
+        }
+
+        @Override
+        public int precedence() {
+            return 4;
+        }
+
+        @Override
+        public String toString() {
+            return key;
+        }
+    }
+
+    private record Not(Node operand) implements Node {
+
+        @Override
+        public Roaring64NavigableMap evaluate(Function<String, Roaring64NavigableMap> terms,
+                                              Roaring64NavigableMap universe) {
+            Roaring64NavigableMap result = copy(universe);
+            result.andNot(operand.evaluate(terms, universe));
+            return result;
+        }
+
+        @Override
+        public int precedence() {
+            return 3;
+        }
+
+        @Override
+        public String toString() {
+            return "NOT " + nested(operand);
+        }
+    }
+
+    private record And(Node left, Node right) implements Node {
+
+        @Override
+        public Roaring64NavigableMap evaluate(Function<String, Roaring64NavigableMap> terms,
+                                              Roaring64NavigableMap universe) {
+            Roaring64NavigableMap result = left.evaluate(terms, universe);
+            result.and(right.evaluate(terms, universe));
+            return result;
+        }
+
+        @Override
+        public int precedence() {
+            return 2;
+        }
+
+        @Override
+        public String toString() {
+            return nested(left) + " AND " + nested(right);
+        }
+    }
+
+    private record Or(Node left, Node right) implements Node {
+
+        @Override
+        public Roaring64NavigableMap evaluate(Function<String, Roaring64NavigableMap> terms,
+                                              Roaring64NavigableMap universe) {
+            Roaring64NavigableMap result = left.evaluate(terms, universe);
+            result.or(right.evaluate(terms, universe));
+            return result;
+        }
+
+        @Override
+        public int precedence() {
+            return 1;
+        }
+
+        @Override
+        public String toString() {
+            return nested(left) + " OR " + nested(right);
+        }
+    }
+}
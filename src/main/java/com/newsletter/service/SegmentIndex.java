@@ -0,0 +1,259 @@
+package com.newsletter.service;
+
+import com.newsletter.dto.SubscriberAttributes;
+import com.newsletter.dto.SubscriberTag;
+import com.newsletter.repository.SubscriberRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Compressed bitmaps of active subscriber ids, one per topic and per value
+ * of each segmentation attribute (locale, engagement tier, tag and signup
+ * month), so a {@link SegmentExpression} evaluates to its recipients with a
+ * few bitmap operations instead of a filtered scan of {@code subscribers}.
+ * Subscribers are also indexed by time zone, to split audiences into
+ * UTC-offset buckets for local-time delivery.
+ * <p>
+ * The index is built from the database on first use. A subscriber
+ * invalidation re-reads that subscriber's attributes on a background thread
+ * and moves its id between bitmaps. An audience invalidation (bulk imports,
+ * topic deletes) discards the index, which is rebuilt by the next segmented
+ * send.
+ */
+@Component
+@Slf4j
+public class SegmentIndex {
+
+    private static final Roaring64NavigableMap EMPTY = new Roaring64NavigableMap();
+
+    private final SubscriberRepository subscriberRepository;
+    private final int pageSize;
+    private final ExecutorService updater;
+
+    // Guarded by this
+    private final Map<String, Roaring64NavigableMap> bitmaps = new HashMap<>();
+    private final Map<String, Roaring64NavigableMap> zones = new HashMap<>();
+    private Roaring64NavigableMap active = new Roaring64NavigableMap();
+    private Roaring64NavigableMap zoned = new Roaring64NavigableMap();
+    private boolean built;
+
+    public SegmentIndex(SubscriberRepository subscriberRepository,
+                        InvalidationBus invalidationBus,
+                        @Value("${newsletter.segments.build-page-size:5000}") int pageSize) {
+        this.subscriberRepository = subscriberRepository;
+        this.pageSize = pageSize;
+        this.updater = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "segment-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        invalidationBus.subscribe(InvalidationBus.SUBSCRIBER, new InvalidationBus.Listener() {
+            @Override
+            public void invalidate(Long subscriberId) {
+                updater.execute(() -> refreshSubscriber(subscriberId));
+            }
+
+            @Override
+            public void invalidateAll() {
+                discard();
+            }
+        });
+        invalidationBus.subscribe(InvalidationBus.AUDIENCE, new InvalidationBus.Listener() {
+            @Override
+            public void invalidate(Long topicId) {
+                discard();
+            }
+
+            @Override
+            public void invalidateAll() {
+                discard();
+            }
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        updater.shutdownNow();
+    }
+
+    /**
+     * Ids of the active subscribers of the topic that match the segment, in
+     * a new bitmap the caller owns.
+     */
+    public synchronized Roaring64NavigableMap select(Long topicId, SegmentExpression segment) {
+        if (!built) {
+            build();
+        }
+        Roaring64NavigableMap result = segment.evaluate(this::bitmap, active);
+        result.and(bitmap(topicKey(topicId)));
+        return result;
+    }
+
+    /**
+     * The distinct UTC offsets, in seconds, that subscribers' zones have at
+     * the given wall-clock time. Subscribers without a zone count as being
+     * in {@code defaultZone}.
+     */
+    public synchronized NavigableSet<Integer> offsets(LocalDateTime localTime, ZoneId defaultZone) {
+        if (!built) {
+            build();
+        }
+        NavigableSet<Integer> offsets = new TreeSet<>();
+        zones.forEach((zone, ids) -> {
+            if (!ids.isEmpty()) {
+                offsets.add(LocalTimeBuckets.offset(localTime, ZoneId.of(zone)));
+            }
+        });
+        if (active.getLongCardinality() > zoned.getLongCardinality()) {
+            offsets.add(LocalTimeBuckets.offset(localTime, defaultZone));
+        }
+        return offsets;
+    }
+
+    /**
+     * Ids of active subscribers whose offset at the given wall-clock time is
+     * at least {@code fromOffset} and below {@code toOffset}, in a new bitmap
+     * the caller owns.
+     */
+    public synchronized Roaring64NavigableMap withOffsetBetween(LocalDateTime localTime, ZoneId defaultZone,
+                                                                int fromOffset, int toOffset) {
+        if (!built) {
+            build();
+        }
+        Roaring64NavigableMap result = new Roaring64NavigableMap();
+        zones.forEach((zone, ids) -> {
+            int offset = LocalTimeBuckets.offset(localTime, ZoneId.of(zone));
+            if (offset >= fromOffset && offset < toOffset) {
+                result.or(ids);
+            }
+        });
+        int defaultOffset = LocalTimeBuckets.offset(localTime, defaultZone);
+        if (defaultOffset >= fromOffset && defaultOffset < toOffset) {
+            Roaring64NavigableMap unzoned = new Roaring64NavigableMap();
+            unzoned.or(active);
+            unzoned.andNot(zoned);
+            result.or(unzoned);
+        }
+        return result;
+    }
+
+    private Roaring64NavigableMap bitmap(String key) {
+        return bitmaps.getOrDefault(key, EMPTY);
+    }
+
+    private void build() {
+        long startedAt = System.currentTimeMillis();
+        bitmaps.clear();
+        zones.clear();
+        active = new Roaring64NavigableMap();
+        zoned = new Roaring64NavigableMap();
+
+        long lastId = 0L;
+        while (true) {
+            List<SubscriberAttributes> page = subscriberRepository.findActiveAttributesAfter(
+                    lastId, PageRequest.of(0, pageSize));
+            if (page.isEmpty()) {
+                break;
+            }
+
+            long upToId = page.get(page.size() - 1).subscriberId();
+            page.forEach(this::add);
+            for (SubscriberTag tag : subscriberRepository.findActiveTagsBetween(lastId, upToId)) {
+                addTo(SegmentExpression.key("tag", tag.tag()), tag.subscriberId());
+            }
+
+            if (page.size() < pageSize) {
+                break;
+            }
+            lastId = upToId;
+        }
+
+        active.runOptimize();
+        zoned.runOptimize();
+        bitmaps.values().forEach(Roaring64NavigableMap::runOptimize);
+        zones.values().forEach(Roaring64NavigableMap::runOptimize);
+        built = true;
+        log.info("Built segment index over {} active subscribers in {} bitmaps in {} ms",
+                active.getLongCardinality(), bitmaps.size(), System.currentTimeMillis() - startedAt);
+    }
+
+    private void refreshSubscriber(Long subscriberId) {
+        try {
+            Optional<SubscriberAttributes> attributes = subscriberRepository.findActiveAttributes(subscriberId);
+            List<String> tags = attributes.isPresent()
+                    ? subscriberRepository.findTagsBySubscriberId(subscriberId)
+                    : List.of();
+
+            synchronized (this) {
+                if (!built) {
+                    return;
+                }
+                active.removeLong(subscriberId);
+                zoned.removeLong(subscriberId);
+                bitmaps.values().forEach(bitmap -> bitmap.removeLong(subscriberId));
+                zones.values().forEach(bitmap -> bitmap.removeLong(subscriberId));
+                attributes.ifPresent(this::add);
+                tags.forEach(tag -> addTo(SegmentExpression.key("tag", tag), subscriberId));
+            }
+        } catch (Exception e) {
+            log.error("Failed to refresh subscriber ID: {} in the segment index, discarding it. Error: {}",
+                    subscriberId, e.getMessage(), e);
+            discard();
+        }
+    }
+
+    private void add(SubscriberAttributes attributes) {
+        long id = attributes.subscriberId();
+        active.addLong(id);
+        addTo(topicKey(attributes.topicId()), id);
+        if (attributes.locale() != null) {
+            addTo(SegmentExpression.key("locale", attributes.locale()), id);
+        }
+        if (attributes.timeZone() != null) {
+            zones.computeIfAbsent(attributes.timeZone(), zone -> new Roaring64NavigableMap()).addLong(id);
+            zoned.addLong(id);
+        }
+        if (attributes.engagementTier() != null) {
+            addTo(SegmentExpression.key("tier", attributes.engagementTier().name()), id);
+        }
+        if (attributes.subscribedAt() != null) {
+            addTo(SegmentExpression.key("signup", YearMonth.from(attributes.subscribedAt()).toString()), id);
+        }
+    }
+
+    private void addTo(String key, long id) {
+        bitmaps.computeIfAbsent(key, k -> new Roaring64NavigableMap()).addLong(id);
+    }
+
+    private synchronized void discard() {
+        if (built) {
+            built = false;
+            bitmaps.clear();
+            zones.clear();
+            active = new Roaring64NavigableMap();
+            zoned = new Roaring64NavigableMap();
+            log.info("Discarded segment index; it is rebuilt by the next segmented send");
+        }
+    }
+
+    // Not a segment attribute, so expressions cannot name it
+    private static String topicKey(Long topicId) {
+        return "topic:" + topicId;
+    }
+}
@@ -0,0 +1,135 @@
+package com.newsletter.service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket that releases messages into the dispatch pipeline at a
+ * steady rate. The bucket holds at most one second of tokens, so a pause
+ * never turns into a burst.
+ * <p>
+ * A pacer spreading a send over a window starts its clock on the first
+ * message and recomputes its rate on every message from the recipients and
+ * time left, so a send that fell behind (a slow relay backing up the
+ * pipeline) catches up and one that got ahead slows down. Once the window
+ * has passed, the rest goes out as fast as the pipeline allows. A shared
+ * quota pacer caps the rate across every send on the node.
+ * <p>
+ * Acquiring never fails for lack of tokens: the bucket goes into debt and
+ * the caller sleeps until it is paid off.
+ */
+final class SendPacer {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    /** Releases every message at once. */
+    static final SendPacer UNLIMITED = new SendPacer(Double.POSITIVE_INFINITY, 0L, 0L, null);
+
+    private final long expected;
+    private final long windowNanos;
+    private final SendPacer quota;
+
+    // Guarded by this
+    private double rate;
+    private double tokens = 1d;
+    private long lastRefill;
+    private long deadline;
+    private long emitted;
+    private boolean started;
+
+    private SendPacer(double rate, long expected, long windowNanos, SendPacer quota) {
+        this.rate = rate;
+        this.expected = expected;
+        this.windowNanos = windowNanos;
+        this.quota = quota;
+    }
+
+    /**
+     * A pacer releasing {@code perHour} messages an hour, to be shared by
+     * all sends as a provider quota.
+     */
+    static SendPacer perHour(long perHour) {
+        if (perHour <= 0) {
+            throw new IllegalArgumentException("Hourly quota must be positive");
+        }
+        return new SendPacer(perHour / 3600d, 0L, 0L, null);
+    }
+
+    /**
+     * A pacer spreading {@code expected} messages evenly over the window,
+     * never faster than the quota when one is given.
+     */
+    static SendPacer spread(long expected, Duration window, SendPacer quota) {
+        if (expected <= 0 || window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("A send window needs recipients and a positive duration");
+        }
+        return new SendPacer(0d, expected, window.toNanos(), quota);
+    }
+
+    /**
+     * Takes a token for one message, sleeping until the bucket allows it.
+     */
+    void acquire() {
+        long wait = reserve(System.nanoTime());
+        if (wait <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while pacing a send", e);
+        }
+    }
+
+    /**
+     * Takes a token for one message at {@code now} (in {@link System#nanoTime}
+     * terms) from this pacer and its quota.
+     *
+     * @return nanoseconds the caller must wait before sending it
+     */
+    long reserve(long now) {
+        long wait = reserveOwn(now);
+        return quota == null ? wait : Math.max(wait, quota.reserve(now));
+    }
+
+    /**
+     * The current rate in messages per second.
+     */
+    synchronized double rate() {
+        return rate;
+    }
+
+    private synchronized long reserveOwn(long now) {
+        if (!started) {
+            started = true;
+            lastRefill = now;
+            deadline = now + windowNanos;
+        }
+        if (windowNanos > 0) {
+            adjustRate(now);
+        }
+        if (rate == Double.POSITIVE_INFINITY) {
+            emitted++;
+            return 0L;
+        }
+
+        double capacity = Math.max(1d, rate);
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * rate / NANOS_PER_SECOND);
+        lastRefill = now;
+        tokens -= 1d;
+        emitted++;
+        return tokens >= 0 ? 0L : (long) Math.ceil(-tokens / rate * NANOS_PER_SECOND);
+    }
+
+    private void adjustRate(long now) {
+        long timeLeft = deadline - now;
+        long remaining = expected - emitted;
+        if (timeLeft <= 0) {
+            rate = Double.POSITIVE_INFINITY;
+        } else if (remaining > 0) {
+            rate = remaining * NANOS_PER_SECOND / timeLeft;
+        }
+        // With the estimate used up, the last rate carries on
+    }
+}
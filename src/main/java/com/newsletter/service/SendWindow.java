@@ -0,0 +1,72 @@
+package com.newsletter.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Spreads an outbox send over its window across every node. Jobs are
+ * released in proportion to the time elapsed since the send was enqueued,
+ * counted against the jobs claimed since then, so the cluster as a whole
+ * keeps to the window however many nodes claim from it and however often
+ * they restart. Releases come a second's worth at a time, at the rate that
+ * would finish the pending jobs on time, so a send that fell behind catches
+ * up without a burst. Once the window has passed, everything left is
+ * released.
+ */
+final class SendWindow {
+
+    private static final long MILLIS_PER_SECOND = 1000L;
+
+    private final LocalDateTime start;
+    private final long lengthMillis;
+
+    SendWindow(LocalDateTime start, Duration length) {
+        if (length.isNegative() || length.isZero()) {
+            throw new IllegalArgumentException("A send window needs a positive duration");
+        }
+        this.start = start;
+        this.lengthMillis = length.toMillis();
+    }
+
+    LocalDateTime start() {
+        return start;
+    }
+
+    /**
+     * How many of the pending jobs may be claimed at {@code now}, given the
+     * jobs claimed since the window started.
+     */
+    long claimable(long pending, long claimed, LocalDateTime now) {
+        long elapsed = elapsedMillis(now);
+        if (pending <= 0 || elapsed >= lengthMillis) {
+            return Math.max(0L, pending);
+        }
+        long step = step(pending, elapsed);
+        long due = (pending + claimed) * elapsed / lengthMillis + 1 - claimed;
+        return due >= step ? step : 0L;
+    }
+
+    /**
+     * How long until {@link #claimable} releases jobs again.
+     */
+    Duration untilNext(long pending, long claimed, LocalDateTime now) {
+        long elapsed = elapsedMillis(now);
+        if (pending <= 0 || elapsed >= lengthMillis) {
+            return Duration.ZERO;
+        }
+        long releasedAt = ceilDiv((claimed + step(pending, elapsed) - 1) * lengthMillis, pending + claimed);
+        return Duration.ofMillis(Math.max(0L, Math.min(releasedAt, lengthMillis) - elapsed));
+    }
+
+    private long step(long pending, long elapsed) {
+        return Math.min(pending, ceilDiv(pending * MILLIS_PER_SECOND, lengthMillis - elapsed));
+    }
+
+    private long elapsedMillis(LocalDateTime now) {
+        return Math.max(0L, Duration.between(start, now).toMillis());
+    }
+
+    private static long ceilDiv(long dividend, long divisor) {
+        return -Math.floorDiv(-dividend, divisor);
+    }
+}
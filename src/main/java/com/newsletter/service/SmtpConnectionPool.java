@@ -0,0 +1,201 @@
+package com.newsletter.service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+import java.util.Date;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Keeps authenticated SMTP connections open between messages so a send pays
+ * the connect, STARTTLS and AUTH handshake once per connection rather than
+ * once per recipient.
+ * <p>
+ * A message the server rejects (a bad recipient, a refused message) leaves
+ * the connection in the pool. A connection-level failure discards it, and
+ * if the connection had been idle in the pool the message is retried once
+ * on a new one, since a server may drop a connection between validations.
+ */
+@Component
+@Slf4j
+public class SmtpConnectionPool {
+
+    private static final String DEFAULT_PROTOCOL = "smtp";
+
+    private final JavaMailSenderImpl mailSender;
+    private final int maxMessagesPerConnection;
+    private final long validateAfterIdleMillis;
+    private final Semaphore permits;
+    private final BlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+
+    public SmtpConnectionPool(JavaMailSenderImpl mailSender,
+                              @Value("${newsletter.smtp.pool.max-connections:4}") int maxConnections,
+                              @Value("${newsletter.smtp.pool.max-messages-per-connection:100}") int maxMessagesPerConnection,
+                              @Value("${newsletter.smtp.pool.validate-after-idle-ms:30000}") long validateAfterIdleMillis) {
+        this.mailSender = mailSender;
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.validateAfterIdleMillis = validateAfterIdleMillis;
+        this.permits = new Semaphore(maxConnections, true);
+    }
+
+    public MimeMessage createMessage() {
+        return mailSender.createMimeMessage();
+    }
+
+    /**
+     * Sends a message over a pooled connection, blocking while all
+     * connections are in use.
+     */
+    public void send(MimeMessage message) throws MessagingException {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted while waiting for an SMTP connection", e);
+        }
+
+        try {
+            if (message.getSentDate() == null) {
+                message.setSentDate(new Date());
+            }
+            message.saveChanges();
+
+            PooledConnection connection = borrow();
+            try {
+                transmit(connection, message);
+            } catch (ConnectionFailure failure) {
+                if (!connection.reused) {
+                    throw failure.error;
+                }
+                log.debug("Pooled SMTP connection failed, retrying on a new one. Error: {}",
+                        failure.error.getMessage());
+                try {
+                    transmit(open(), message);
+                } catch (ConnectionFailure retryFailure) {
+                    throw retryFailure.error;
+                }
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        PooledConnection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            discard(connection);
+        }
+    }
+
+    /**
+     * Sends the message and returns the connection to the pool, unless the
+     * failure was the connection's own.
+     *
+     * @throws ConnectionFailure if the connection broke and was discarded
+     */
+    private void transmit(PooledConnection connection, MimeMessage message)
+            throws MessagingException, ConnectionFailure {
+        Address[] recipients = message.getAllRecipients();
+        try {
+            connection.transport.sendMessage(message, recipients);
+        } catch (MessagingException e) {
+            if (isConnectionFailure(e, connection)) {
+                discard(connection);
+                throw new ConnectionFailure(e);
+            }
+            release(connection);
+            throw e;
+        }
+        connection.messagesSent++;
+        release(connection);
+    }
+
+    /**
+     * Rejections of a recipient or message come back as a
+     * {@link SendFailedException} on a connection the server keeps open.
+     * Anything else (I/O errors, a 421 shutdown) leaves it unusable.
+     */
+    private boolean isConnectionFailure(MessagingException e, PooledConnection connection) {
+        return !(e instanceof SendFailedException) || !connection.transport.isConnected();
+    }
+
+    private PooledConnection borrow() throws MessagingException {
+        PooledConnection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            if (isAlive(connection)) {
+                connection.reused = true;
+                return connection;
+            }
+            discard(connection);
+        }
+        return open();
+    }
+
+    private void release(PooledConnection connection) {
+        if (connection.messagesSent >= maxMessagesPerConnection) {
+            log.debug("Recycling SMTP connection after {} messages", connection.messagesSent);
+            discard(connection);
+            return;
+        }
+        connection.lastUsedAt = System.currentTimeMillis();
+        idle.offerFirst(connection);
+    }
+
+    private boolean isAlive(PooledConnection connection) {
+        if (System.currentTimeMillis() - connection.lastUsedAt < validateAfterIdleMillis) {
+            return true;
+        }
+        // SMTPTransport.isConnected() issues a NOOP to verify the server is still there
+        return connection.transport.isConnected();
+    }
+
+    private PooledConnection open() throws MessagingException {
+        String protocol = mailSender.getProtocol() != null ? mailSender.getProtocol() : DEFAULT_PROTOCOL;
+        Transport transport = mailSender.getSession().getTransport(protocol);
+        transport.connect(mailSender.getHost(), mailSender.getPort(),
+                mailSender.getUsername(), mailSender.getPassword());
+        log.debug("Opened SMTP connection to {}:{}", mailSender.getHost(), mailSender.getPort());
+        return new PooledConnection(transport);
+    }
+
+    private void discard(PooledConnection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Error closing SMTP connection: {}", e.getMessage());
+        }
+    }
+
+    private static final class PooledConnection {
+        private final Transport transport;
+        private int messagesSent;
+        private boolean reused;
+        private long lastUsedAt = System.currentTimeMillis();
+
+        private PooledConnection(Transport transport) {
+            this.transport = transport;
+        }
+    }
+
+    private static final class ConnectionFailure extends Exception {
+        private final MessagingException error;
+
+        private ConnectionFailure(MessagingException error) {
+            super(error.getMessage(), error, false, false);
+            this.error = error;
+        }
+    }
+}
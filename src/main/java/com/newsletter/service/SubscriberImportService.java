@@ -0,0 +1,437 @@
+package com.newsletter.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newsletter.config.DatabasePlatform;
+import com.newsletter.dto.ImportErrorDTO;
+import com.newsletter.dto.ImportResultDTO;
+import com.newsletter.dto.SubscriberDTO;
+import com.newsletter.model.Subscriber.EngagementTier;
+import com.newsletter.repository.TopicRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a CSV or NDJSON subscriber list into the database. Rows are parsed
+ * and validated one line at a time and upserted in JDBC batches on the
+ * (email, topic_id) unique key, so memory stays constant whatever the file
+ * size. Existing subscribers get their name updated; their active flag is
+ * left alone, so an import never re-subscribes someone who opted out.
+ * Segmentation attributes are written when a row gives them and otherwise
+ * keep their current value; a row that gives tags replaces the
+ * subscriber's tags.
+ */
+@Service
+@Slf4j
+public class SubscriberImportService {
+
+    public static final String CSV = "text/csv";
+    public static final String NDJSON = "application/x-ndjson";
+
+    /** Topic ids whose existence is remembered during one import. */
+    private static final int KNOWN_TOPICS_CAPACITY = 256;
+
+    private static final String POSTGRES_UPSERT_SQL =
+            "INSERT INTO subscribers (id, email, name, topic_id, locale, time_zone, engagement_tier, active, " +
+            "subscribed_at, updated_at) " +
+            "VALUES (nextval('subscribers_seq'), ?, ?, ?, ?, ?, ?, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (email, topic_id) DO UPDATE SET name = EXCLUDED.name, " +
+            "locale = COALESCE(EXCLUDED.locale, subscribers.locale), " +
+            "time_zone = COALESCE(EXCLUDED.time_zone, subscribers.time_zone), " +
+            "engagement_tier = COALESCE(EXCLUDED.engagement_tier, subscribers.engagement_tier), " +
+            "updated_at = EXCLUDED.updated_at";
+
+    private static final String MERGE_SQL =
+            "MERGE INTO subscribers t USING (VALUES (CAST(? AS VARCHAR), CAST(? AS VARCHAR), CAST(? AS BIGINT), " +
+            "CAST(? AS VARCHAR), CAST(? AS VARCHAR), CAST(? AS VARCHAR))) " +
+            "AS s (email, name, topic_id, locale, time_zone, engagement_tier) " +
+            "ON t.email = s.email AND t.topic_id = s.topic_id " +
+            "WHEN MATCHED THEN UPDATE SET name = s.name, locale = COALESCE(s.locale, t.locale), " +
+            "time_zone = COALESCE(s.time_zone, t.time_zone), " +
+            "engagement_tier = COALESCE(s.engagement_tier, t.engagement_tier), updated_at = CURRENT_TIMESTAMP " +
+            "WHEN NOT MATCHED THEN INSERT (id, email, name, topic_id, locale, time_zone, engagement_tier, active, " +
+            "subscribed_at, updated_at) VALUES (NEXT VALUE FOR subscribers_seq, s.email, s.name, s.topic_id, " +
+            "s.locale, s.time_zone, s.engagement_tier, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)";
+
+    private static final String DELETE_TAGS_SQL =
+            "DELETE FROM subscriber_tags WHERE subscriber_id = " +
+            "(SELECT id FROM subscribers WHERE email = ? AND topic_id = ?)";
+
+    private static final String INSERT_TAG_SQL =
+            "INSERT INTO subscriber_tags (subscriber_id, tag) SELECT id, ? FROM subscribers " +
+            "WHERE email = ? AND topic_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TopicRepository topicRepository;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final InvalidationBus invalidationBus;
+    private final String upsertSql;
+
+    @Value("${newsletter.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${newsletter.import.max-errors:1000}")
+    private int maxErrors;
+
+    public SubscriberImportService(JdbcTemplate jdbcTemplate,
+                                   TopicRepository topicRepository,
+                                   Validator validator,
+                                   ObjectMapper objectMapper,
+                                   PlatformTransactionManager transactionManager,
+                                   DatabasePlatform databasePlatform,
+                                   InvalidationBus invalidationBus) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.topicRepository = topicRepository;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.upsertSql = databasePlatform.isPostgres() ? POSTGRES_UPSERT_SQL : MERGE_SQL;
+        this.invalidationBus = invalidationBus;
+    }
+
+    /**
+     * Imports every row of the stream. CSV input needs a header line with an
+     * {@code email} column and optional {@code name}, {@code topic_id},
+     * {@code locale}, {@code time_zone}, {@code engagement_tier} and
+     * {@code tags} columns, tags being separated by {@code ;}. NDJSON input
+     * has one subscriber object per line. Rows without a topic use
+     * {@code defaultTopicId}.
+     */
+    public ImportResultDTO importSubscribers(InputStream input, String contentType, Long defaultTopicId)
+            throws IOException {
+        boolean ndjson = isFormat(contentType, NDJSON);
+        if (!ndjson && !isFormat(contentType, CSV)) {
+            throw new IllegalArgumentException("Unsupported import format: " + contentType);
+        }
+
+        log.info("Starting {} subscriber import (default topic ID: {})", ndjson ? "NDJSON" : "CSV", defaultTopicId);
+        ImportRun run = new ImportRun();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            CsvHeader header = null;
+            String line;
+            long lineNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (!ndjson && header == null) {
+                    header = CsvHeader.parse(line);
+                    continue;
+                }
+
+                run.processed++;
+                SubscriberDTO row;
+                try {
+                    row = ndjson ? objectMapper.readValue(line, SubscriberDTO.class) : header.toSubscriber(line);
+                } catch (JsonProcessingException e) {
+                    run.reject(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+                    continue;
+                } catch (IllegalArgumentException e) {
+                    run.reject(lineNumber, e.getMessage());
+                    continue;
+                }
+
+                String problem = validate(row, defaultTopicId, run);
+                if (problem != null) {
+                    run.reject(lineNumber, problem);
+                    continue;
+                }
+
+                run.batch.add(new ImportRow(lineNumber, row));
+                if (run.batch.size() >= batchSize) {
+                    flush(run);
+                }
+            }
+        }
+
+        flush(run);
+        log.info("Subscriber import finished. Processed: {}, Imported: {}, Failed: {}",
+                run.processed, run.imported, run.failed);
+        return new ImportResultDTO(run.processed, run.imported, run.failed, run.errors, run.errorsTruncated);
+    }
+
+    private String validate(SubscriberDTO row, Long defaultTopicId, ImportRun run) {
+        if (row.getTopicId() == null) {
+            row.setTopicId(defaultTopicId);
+        }
+        if (row.getEmail() != null) {
+            row.setEmail(row.getEmail().trim());
+        }
+
+        Set<ConstraintViolation<SubscriberDTO>> violations = validator.validate(row);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+
+        if (row.getLocale() != null) {
+            row.setLocale(SubscriberService.locale(row.getLocale()));
+        }
+        if (row.getTimeZone() != null) {
+            try {
+                row.setTimeZone(SubscriberService.timeZone(row.getTimeZone()));
+            } catch (IllegalArgumentException e) {
+                return e.getMessage();
+            }
+        }
+        if (row.getTags() != null) {
+            row.setTags(SubscriberService.tags(row.getTags()));
+        }
+
+        boolean topicExists = run.knownTopics.computeIfAbsent(row.getTopicId(), topicRepository::existsById);
+        return topicExists ? null : "Topic not found with ID: " + row.getTopicId();
+    }
+
+    private void flush(ImportRun run) {
+        if (run.batch.isEmpty()) {
+            return;
+        }
+
+        List<ImportRow> rows = run.batch;
+        run.batch = new ArrayList<>(batchSize);
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> upsert(rows));
+            run.imported += rows.size();
+            publishAudienceChanges(rows);
+        } catch (Exception e) {
+            log.warn("Import batch of {} rows failed, retrying row by row. Error: {}", rows.size(), e.getMessage());
+            for (ImportRow row : rows) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> upsert(List.of(row)));
+                    run.imported++;
+                } catch (Exception rowError) {
+                    run.reject(row.line(), "Could not be saved: " + rowError.getMessage());
+                }
+            }
+            publishAudienceChanges(rows);
+        }
+    }
+
+    /**
+     * Bulk upserts bypass per-subscriber invalidations, so the indexed
+     * audiences of the touched topics and the {@link SegmentIndex}, which
+     * listens for audience invalidations, are dropped and rebuilt on next
+     * use.
+     */
+    private void publishAudienceChanges(List<ImportRow> rows) {
+        rows.stream()
+                .map(row -> row.subscriber().getTopicId())
+                .distinct()
+                .forEach(topicId -> invalidationBus.publish(InvalidationBus.AUDIENCE, topicId));
+    }
+
+    private void upsert(List<ImportRow> rows) {
+        jdbcTemplate.batchUpdate(upsertSql, rows, rows.size(), (ps, row) -> {
+            SubscriberDTO subscriber = row.subscriber();
+            ps.setString(1, subscriber.getEmail());
+            ps.setString(2, subscriber.getName());
+            ps.setLong(3, subscriber.getTopicId());
+            ps.setString(4, subscriber.getLocale());
+            ps.setString(5, subscriber.getTimeZone());
+            ps.setString(6, subscriber.getEngagementTier() != null ? subscriber.getEngagementTier().name() : null);
+        });
+        replaceTags(rows);
+    }
+
+    /**
+     * Replaces the tags of the rows that give any. When a batch has the same
+     * subscriber twice, the later row wins, as it does for the other columns.
+     */
+    private void replaceTags(List<ImportRow> rows) {
+        Map<String, SubscriberDTO> tagged = new LinkedHashMap<>();
+        for (ImportRow row : rows) {
+            SubscriberDTO subscriber = row.subscriber();
+            if (subscriber.getTags() != null) {
+                tagged.put(subscriber.getEmail() + '\n' + subscriber.getTopicId(), subscriber);
+            }
+        }
+        if (tagged.isEmpty()) {
+            return;
+        }
+
+        List<SubscriberDTO> subscribers = new ArrayList<>(tagged.values());
+        jdbcTemplate.batchUpdate(DELETE_TAGS_SQL, subscribers, subscribers.size(), (ps, subscriber) -> {
+            ps.setString(1, subscriber.getEmail());
+            ps.setLong(2, subscriber.getTopicId());
+        });
+
+        List<Map.Entry<SubscriberDTO, String>> tags = new ArrayList<>();
+        subscribers.forEach(subscriber -> subscriber.getTags().forEach(tag -> tags.add(Map.entry(subscriber, tag))));
+        if (tags.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_TAG_SQL, tags, tags.size(), (ps, tag) -> {
+            ps.setString(1, tag.getValue());
+            ps.setString(2, tag.getKey().getEmail());
+            ps.setLong(3, tag.getKey().getTopicId());
+        });
+    }
+
+    private static boolean isFormat(String contentType, String format) {
+        return contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith(format);
+    }
+
+    /**
+     * Splits one CSV line, honouring double-quoted fields and doubled quotes
+     * inside them. Quoted fields cannot span lines.
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+
+    private record ImportRow(long line, SubscriberDTO subscriber) {
+    }
+
+    private record CsvHeader(int email, int name, int topicId, int locale, int timeZone, int engagementTier,
+                             int tags) {
+
+        static CsvHeader parse(String line) {
+            List<String> columns = parseCsvLine(line);
+            int email = -1;
+            int name = -1;
+            int topicId = -1;
+            int locale = -1;
+            int timeZone = -1;
+            int engagementTier = -1;
+            int tags = -1;
+            for (int i = 0; i < columns.size(); i++) {
+                switch (columns.get(i).toLowerCase(Locale.ROOT).replace("_", "")) {
+                    case "email" -> email = i;
+                    case "name" -> name = i;
+                    case "topicid" -> topicId = i;
+                    case "locale" -> locale = i;
+                    case "timezone" -> timeZone = i;
+                    case "engagementtier" -> engagementTier = i;
+                    case "tags" -> tags = i;
+                    default -> { }
+                }
+            }
+            if (email < 0) {
+                throw new IllegalArgumentException("CSV header must contain an email column");
+            }
+            return new CsvHeader(email, name, topicId, locale, timeZone, engagementTier, tags);
+        }
+
+        SubscriberDTO toSubscriber(String line) {
+            List<String> fields = parseCsvLine(line);
+            SubscriberDTO dto = new SubscriberDTO();
+            dto.setEmail(field(fields, email));
+            dto.setName(field(fields, name));
+            String topic = field(fields, topicId);
+            if (topic != null && !topic.isEmpty()) {
+                try {
+                    dto.setTopicId(Long.parseLong(topic));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid topic ID: " + topic);
+                }
+            }
+            dto.setLocale(blankToNull(field(fields, locale)));
+            dto.setTimeZone(blankToNull(field(fields, timeZone)));
+            String tier = blankToNull(field(fields, engagementTier));
+            if (tier != null) {
+                try {
+                    dto.setEngagementTier(EngagementTier.valueOf(tier.toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Invalid engagement tier: " + tier);
+                }
+            }
+            String tagList = blankToNull(field(fields, tags));
+            if (tagList != null) {
+                dto.setTags(Arrays.stream(tagList.split(";"))
+                        .map(String::trim)
+                        .filter(tag -> !tag.isEmpty())
+                        .collect(Collectors.toSet()));
+            }
+            return dto;
+        }
+
+        private static String blankToNull(String value) {
+            return value == null || value.isBlank() ? null : value;
+        }
+
+        private static String field(List<String> fields, int index) {
+            return index >= 0 && index < fields.size() ? fields.get(index) : null;
+        }
+    }
+
+    private final class ImportRun {
+
+        private final Map<Long, Boolean> knownTopics = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+                return size() > KNOWN_TOPICS_CAPACITY;
+            }
+        };
+        private final List<ImportErrorDTO> errors = new ArrayList<>();
+        private List<ImportRow> batch = new ArrayList<>();
+        private boolean errorsTruncated;
+        private long processed;
+        private long imported;
+        private long failed;
+
+        private void reject(long line, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new ImportErrorDTO(line, message));
+            } else {
+                errorsTruncated = true;
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.newsletter.service;
 
+import com.newsletter.dto.CursorPage;
 import com.newsletter.dto.SubscriberDTO;
 import com.newsletter.model.Subscriber;
 import com.newsletter.model.Topic;
@@ -9,7 +10,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import java.util.List;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,13 +26,18 @@ public class SubscriberService {
 
     private final SubscriberRepository subscriberRepository;
     private final TopicRepository topicRepository;
+    private final CursorPager cursorPager;
+    private final TopicCache topicCache;
+    private final InvalidationBus invalidationBus;
+    private final UnsubscribeTokens unsubscribeTokens;
 
     @Transactional
     public SubscriberDTO createSubscriber(SubscriberDTO subscriberDTO) {
         log.info("Creating subscriber: {} for topic ID: {}", subscriberDTO.getEmail(), subscriberDTO.getTopicId());
 
-        Topic topic = topicRepository.findById(subscriberDTO.getTopicId())
+        TopicCache.CachedTopic cachedTopic = topicCache.findById(subscriberDTO.getTopicId())
                 .orElseThrow(() -> new IllegalArgumentException("Topic not found with ID: " + subscriberDTO.getTopicId()));
+        Topic topic = topicRepository.getReferenceById(cachedTopic.id());
 
         if (subscriberRepository.existsByEmailAndTopic(subscriberDTO.getEmail(), topic)) {
             throw new IllegalArgumentException("Subscriber already exists for this topic");
@@ -36,45 +48,47 @@ public class SubscriberService {
         subscriber.setEmail(subscriberDTO.getEmail());
         subscriber.setTopic(topic);
         subscriber.setActive(true);
+        applyAttributes(subscriber, subscriberDTO);
 
         Subscriber savedSubscriber = subscriberRepository.save(subscriber);
+        invalidationBus.publish(InvalidationBus.SUBSCRIBER, savedSubscriber.getId());
         log.info("Subscriber created successfully with ID: {}", savedSubscriber.getId());
 
-        return convertToDTO(savedSubscriber);
+        return convertToDTO(savedSubscriber, cachedTopic.name());
     }
 
     @Transactional(readOnly = true)
-    public List<SubscriberDTO> getAllSubscribers() {
-        log.info("Fetching all subscribers");
-        return subscriberRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public CursorPage<SubscriberDTO> getSubscribers(Long topicId, Boolean active, LocalDateTime from,
+                                                    LocalDateTime to, String cursor, Integer limit) {
+        log.info("Fetching subscribers. Topic ID: {}, Active: {}, From: {}, To: {}", topicId, active, from, to);
+        CursorPager.checkRange(from, to);
+        return cursorPager.page(cursor, limit,
+                (beforeId, pageable) -> subscriberRepository.findPageBefore(beforeId, topicId, active, from, to, pageable),
+                SubscriberDTO::getId,
+                Function.identity());
     }
 
     @Transactional(readOnly = true)
     public SubscriberDTO getSubscriberById(Long id) {
         log.info("Fetching subscriber by ID: {}", id);
-        Subscriber subscriber = subscriberRepository.findById(id)
+        Subscriber subscriber = subscriberRepository.findByIdWithTopic(id)
                 .orElseThrow(() -> new IllegalArgumentException("Subscriber not found with ID: " + id));
         return convertToDTO(subscriber);
     }
 
     @Transactional(readOnly = true)
-    public List<SubscriberDTO> getSubscribersByTopicId(Long topicId) {
-        log.info("Fetching subscribers for topic ID: {}", topicId);
-        Topic topic = topicRepository.findById(topicId)
-                .orElseThrow(() -> new IllegalArgumentException("Topic not found with ID: " + topicId));
-
-        return subscriberRepository.findByTopicAndActiveTrue(topic).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public CursorPage<SubscriberDTO> getSubscribersByTopicId(Long topicId, String cursor, Integer limit) {
+        if (topicCache.findById(topicId).isEmpty()) {
+            throw new IllegalArgumentException("Topic not found with ID: " + topicId);
+        }
+        return getSubscribers(topicId, true, null, null, cursor, limit);
     }
 
     @Transactional
     public SubscriberDTO updateSubscriber(Long id, SubscriberDTO subscriberDTO) {
         log.info("Updating subscriber ID: {}", id);
 
-        Subscriber subscriber = subscriberRepository.findById(id)
+        Subscriber subscriber = subscriberRepository.findByIdWithTopic(id)
                 .orElseThrow(() -> new IllegalArgumentException("Subscriber not found with ID: " + id));
 
         subscriber.setName(subscriberDTO.getName());
@@ -83,8 +97,10 @@ public class SubscriberService {
         if (subscriberDTO.getActive() != null) {
             subscriber.setActive(subscriberDTO.getActive());
         }
+        applyAttributes(subscriber, subscriberDTO);
 
         Subscriber updatedSubscriber = subscriberRepository.save(subscriber);
+        invalidationBus.publish(InvalidationBus.SUBSCRIBER, id);
         log.info("Subscriber updated successfully");
 
         return convertToDTO(updatedSubscriber);
@@ -99,10 +115,19 @@ public class SubscriberService {
 
         subscriber.setActive(false);
         subscriberRepository.save(subscriber);
+        invalidationBus.publish(InvalidationBus.SUBSCRIBER, id);
 
         log.info("Subscriber unsubscribed successfully");
     }
 
+    /**
+     * Unsubscribes the subscriber an emailed unsubscribe link was made for.
+     */
+    @Transactional
+    public void unsubscribeWithToken(String token) {
+        unsubscribe(unsubscribeTokens.verify(token));
+    }
+
     @Transactional
     public void deleteSubscriber(Long id) {
         log.info("Deleting subscriber ID: {}", id);
@@ -112,17 +137,66 @@ public class SubscriberService {
         }
 
         subscriberRepository.deleteById(id);
+        invalidationBus.publish(InvalidationBus.SUBSCRIBER, id);
         log.info("Subscriber deleted successfully");
     }
 
+    /**
+     * Copies the segmentation attributes and time zone that were given;
+     * omitted ones keep their current value. Locales and tags are stored
+     * lower-case, as segment expressions match them.
+     */
+    private void applyAttributes(Subscriber subscriber, SubscriberDTO subscriberDTO) {
+        if (subscriberDTO.getLocale() != null) {
+            subscriber.setLocale(subscriberDTO.getLocale().isBlank() ? null : locale(subscriberDTO.getLocale()));
+        }
+        if (subscriberDTO.getTimeZone() != null) {
+            subscriber.setTimeZone(subscriberDTO.getTimeZone().isBlank() ? null
+                    : timeZone(subscriberDTO.getTimeZone()));
+        }
+        if (subscriberDTO.getEngagementTier() != null) {
+            subscriber.setEngagementTier(subscriberDTO.getEngagementTier());
+        }
+        if (subscriberDTO.getTags() != null) {
+            subscriber.getTags().clear();
+            subscriber.getTags().addAll(tags(subscriberDTO.getTags()));
+        }
+    }
+
+    static String locale(String locale) {
+        return locale.replace('_', '-').toLowerCase(Locale.ROOT);
+    }
+
+    static Set<String> tags(Set<String> tags) {
+        return tags.stream()
+                .map(tag -> tag.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+    }
+
+    static String timeZone(String zone) {
+        try {
+            return ZoneId.of(zone.trim()).getId();
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Invalid time zone: " + zone);
+        }
+    }
+
     private SubscriberDTO convertToDTO(Subscriber subscriber) {
+        return convertToDTO(subscriber, subscriber.getTopic().getName());
+    }
+
+    private SubscriberDTO convertToDTO(Subscriber subscriber, String topicName) {
         SubscriberDTO dto = new SubscriberDTO();
         dto.setId(subscriber.getId());
         dto.setName(subscriber.getName());
         dto.setEmail(subscriber.getEmail());
         dto.setTopicId(subscriber.getTopic().getId());
-        dto.setTopicName(subscriber.getTopic().getName());
+        dto.setTopicName(topicName);
         dto.setActive(subscriber.getActive());
+        dto.setLocale(subscriber.getLocale());
+        dto.setTimeZone(subscriber.getTimeZone());
+        dto.setEngagementTier(subscriber.getEngagementTier());
+        dto.setTags(new HashSet<>(subscriber.getTags()));
         return dto;
     }
 }
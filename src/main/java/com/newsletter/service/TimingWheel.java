@@ -0,0 +1,117 @@
+package com.newsletter.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashed timing wheel. Deadlines are rounded up to a tick and hashed into a
+ * fixed ring of slots; entries more than one revolution away simply stay in
+ * their slot until the wheel reaches their tick. Scheduling, rescheduling and
+ * cancelling are O(1), and advancing only visits the slots that have elapsed.
+ * <p>
+ * The wheel is passive: the owner calls {@link #advance(long)} from its own
+ * clock thread and handles the expired keys. All methods are thread-safe.
+ */
+public class TimingWheel<K> {
+
+    private final long tickMillis;
+    private final int mask;
+    private final ArrayDeque<Entry<K>>[] slots;
+    private final Map<K, Entry<K>> entries = new HashMap<>();
+    private long lastTick;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        if (wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two");
+        }
+        this.tickMillis = tickMillis;
+        this.mask = wheelSize - 1;
+        this.slots = new ArrayDeque[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            slots[i] = new ArrayDeque<>();
+        }
+        this.lastTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedules the key to expire at the deadline, replacing any earlier
+     * deadline for the same key. Deadlines already in the past expire on the
+     * next advance.
+     */
+    public synchronized void schedule(K key, long deadlineMillis) {
+        cancel(key);
+        long tick = Math.max(ceilDiv(deadlineMillis, tickMillis), lastTick + 1);
+        Entry<K> entry = new Entry<>(key, tick);
+        entries.put(key, entry);
+        slots[(int) (tick & mask)].add(entry);
+    }
+
+    public synchronized boolean cancel(K key) {
+        Entry<K> entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        // Removed lazily when its slot is next visited
+        entry.cancelled = true;
+        return true;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Moves the wheel forward to the given time.
+     *
+     * @return the keys whose deadline has passed
+     */
+    public synchronized List<K> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<K> expired = new ArrayList<>();
+        if (targetTick <= lastTick) {
+            return expired;
+        }
+
+        // Skip whole idle revolutions: visiting each slot once covers them
+        long firstTick = Math.max(lastTick + 1, targetTick - mask);
+        for (long tick = firstTick; tick <= targetTick; tick++) {
+            Iterator<Entry<K>> it = slots[(int) (tick & mask)].iterator();
+            while (it.hasNext()) {
+                Entry<K> entry = it.next();
+                if (entry.cancelled) {
+                    it.remove();
+                } else if (entry.tick <= targetTick) {
+                    it.remove();
+                    entries.remove(entry.key);
+                    expired.add(entry.key);
+                }
+            }
+        }
+
+        lastTick = targetTick;
+        return expired;
+    }
+
+    private static long ceilDiv(long x, long y) {
+        return -Math.floorDiv(-x, y);
+    }
+
+    private static final class Entry<K> {
+        private final K key;
+        private final long tick;
+        private boolean cancelled;
+
+        private Entry(K key, long tick) {
+            this.key = key;
+            this.tick = tick;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.newsletter.service;
+
+import com.newsletter.dto.Recipient;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The active subscribers of one topic held as parallel arrays sorted by
+ * subscriber id: a primitive {@code long[]} of ids and interned email and
+ * name strings. Readers page through it by id like the keyset query it
+ * replaces, so a chunk is consistent even while subscribers are added or
+ * removed between chunks.
+ */
+final class TopicAudience {
+
+    private long[] ids;
+    private String[] emails;
+    private String[] names;
+    private int size;
+
+    TopicAudience(int expectedSize) {
+        int capacity = Math.max(expectedSize, 16);
+        this.ids = new long[capacity];
+        this.emails = new String[capacity];
+        this.names = new String[capacity];
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Adds or replaces a subscriber. Ids normally arrive in increasing order
+     * and are appended; an older id is inserted in place.
+     */
+    synchronized void put(long id, String email, String name) {
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        if (index >= 0) {
+            emails[index] = email.intern();
+            names[index] = name.intern();
+            return;
+        }
+
+        int insertAt = -index - 1;
+        if (size == ids.length) {
+            grow();
+        }
+        if (insertAt < size) {
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            System.arraycopy(emails, insertAt, emails, insertAt + 1, size - insertAt);
+            System.arraycopy(names, insertAt, names, insertAt + 1, size - insertAt);
+        }
+        ids[insertAt] = id;
+        emails[insertAt] = email.intern();
+        names[insertAt] = name.intern();
+        size++;
+    }
+
+    synchronized boolean remove(long id) {
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        if (index < 0) {
+            return false;
+        }
+        int tail = size - index - 1;
+        System.arraycopy(ids, index + 1, ids, index, tail);
+        System.arraycopy(emails, index + 1, emails, index, tail);
+        System.arraycopy(names, index + 1, names, index, tail);
+        size--;
+        emails[size] = null;
+        names[size] = null;
+        return true;
+    }
+
+    /**
+     * Up to {@code limit} recipients with ids greater than {@code afterId},
+     * in id order.
+     */
+    synchronized List<Recipient> after(long afterId, int limit) {
+        int index = Arrays.binarySearch(ids, 0, size, afterId);
+        int from = index >= 0 ? index + 1 : -index - 1;
+        int to = Math.min(size, from + limit);
+
+        List<Recipient> chunk = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            chunk.add(new Recipient(ids[i], emails[i], names[i]));
+        }
+        return chunk;
+    }
+
+    /**
+     * Same figures as {@code SubscriberRepository.audienceChecksum}, for
+     * reconciliation against the database.
+     */
+    synchronized AudienceChecksum checksum() {
+        long idSum = 0;
+        long lengthSum = 0;
+        for (int i = 0; i < size; i++) {
+            idSum += ids[i];
+            lengthSum += characters(emails[i]) + characters(names[i]);
+        }
+        return new AudienceChecksum((long) size, idSum, lengthSum);
+    }
+
+    // Counted in code points, as PostgreSQL's LENGTH does
+    private static int characters(String value) {
+        return value.codePointCount(0, value.length());
+    }
+
+    private void grow() {
+        int capacity = ids.length + (ids.length >> 1);
+        ids = Arrays.copyOf(ids, capacity);
+        emails = Arrays.copyOf(emails, capacity);
+        names = Arrays.copyOf(names, capacity);
+    }
+}
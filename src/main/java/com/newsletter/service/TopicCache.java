@@ -0,0 +1,184 @@
+package com.newsletter.service;
+
+import com.newsletter.dto.CacheStatsDTO;
+import com.newsletter.model.Topic;
+import com.newsletter.repository.TopicRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, least-recently-used cache of topic metadata, looked up by id or
+ * by name. Topics change rarely while signups are frequent, so the signup
+ * and content paths read topics from here instead of the database.
+ * <p>
+ * {@link TopicService} invalidates an entry when its topic is updated or
+ * deleted. The entry is dropped immediately and again, on every replica, via
+ * the {@link InvalidationBus} once the write commits, so a concurrent reload
+ * cannot put the old row back. A load that overlaps an invalidation is not
+ * cached. Entries also expire after a TTL as a backstop for lost
+ * invalidations. Missing topics are never cached.
+ */
+@Component
+public class TopicCache {
+
+    private final TopicRepository topicRepository;
+    private final InvalidationBus invalidationBus;
+    private final int capacity;
+    private final long ttlNanos;
+
+    private final LinkedHashMap<Long, Entry> byId;
+    private final Map<String, Long> idsByName = new HashMap<>();
+    private long generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public TopicCache(TopicRepository topicRepository,
+                      InvalidationBus invalidationBus,
+                      @Value("${newsletter.topic-cache.capacity:1000}") int capacity,
+                      @Value("${newsletter.topic-cache.ttl-ms:60000}") long ttlMs) {
+        this.topicRepository = topicRepository;
+        this.capacity = capacity;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.byId = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() <= TopicCache.this.capacity) {
+                    return false;
+                }
+                idsByName.remove(eldest.getValue().topic().name());
+                evictions.increment();
+                return true;
+            }
+        };
+        this.invalidationBus = invalidationBus;
+        invalidationBus.subscribe(InvalidationBus.TOPIC, new InvalidationBus.Listener() {
+            @Override
+            public void invalidate(Long id) {
+                evict(id);
+            }
+
+            @Override
+            public void invalidateAll() {
+                clear();
+            }
+        });
+    }
+
+    public Optional<CachedTopic> findById(Long id) {
+        synchronized (this) {
+            CachedTopic cached = fresh(id);
+            if (cached != null) {
+                hits.increment();
+                return Optional.of(cached);
+            }
+        }
+        misses.increment();
+        return load(() -> topicRepository.findById(id));
+    }
+
+    public Optional<CachedTopic> findByName(String name) {
+        synchronized (this) {
+            Long id = idsByName.get(name);
+            CachedTopic cached = id == null ? null : fresh(id);
+            if (cached != null) {
+                hits.increment();
+                return Optional.of(cached);
+            }
+        }
+        misses.increment();
+        return load(() -> topicRepository.findByName(name));
+    }
+
+    /**
+     * Drops a topic now, and on every node once the current transaction
+     * commits.
+     */
+    public void invalidate(Long id) {
+        evict(id);
+        invalidationBus.publish(InvalidationBus.TOPIC, id);
+    }
+
+    public synchronized CacheStatsDTO stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount;
+        return new CacheStatsDTO("topics", byId.size(), capacity, hitCount, missCount, evictions.sum(),
+                lookups == 0 ? 0.0 : (double) hitCount / lookups);
+    }
+
+    private Optional<CachedTopic> load(Supplier<Optional<Topic>> query) {
+        long startGeneration;
+        synchronized (this) {
+            startGeneration = generation;
+        }
+
+        Optional<CachedTopic> loaded = query.get().map(CachedTopic::of);
+
+        loaded.ifPresent(topic -> {
+            synchronized (this) {
+                if (generation == startGeneration) {
+                    put(topic);
+                }
+            }
+        });
+        return loaded;
+    }
+
+    private CachedTopic fresh(Long id) {
+        Entry entry = byId.get(id);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.loadedAt() > ttlNanos) {
+            remove(id);
+            return null;
+        }
+        return entry.topic();
+    }
+
+    private void put(CachedTopic topic) {
+        remove(topic.id());
+        byId.put(topic.id(), new Entry(topic, System.nanoTime()));
+        idsByName.put(topic.name(), topic.id());
+    }
+
+    private synchronized void evict(Long id) {
+        generation++;
+        remove(id);
+    }
+
+    private synchronized void clear() {
+        generation++;
+        byId.clear();
+        idsByName.clear();
+    }
+
+    private void remove(Long id) {
+        Entry removed = byId.remove(id);
+        if (removed != null) {
+            idsByName.remove(removed.topic().name(), id);
+        }
+    }
+
+    /**
+     * Immutable copy of the topic columns the cache serves.
+     */
+    public record CachedTopic(Long id, String name, String description) {
+
+        static CachedTopic of(Topic topic) {
+            return new CachedTopic(topic.getId(), topic.getName(), topic.getDescription());
+        }
+    }
+
+    private record Entry(CachedTopic topic, long loadedAt) {
+    }
+}
@@ -1,14 +1,14 @@
 package com.newsletter.service;
 
+import com.newsletter.dto.CursorPage;
 import com.newsletter.dto.TopicDTO;
 import com.newsletter.model.Topic;
+import com.newsletter.repository.ContentRepository;
 import com.newsletter.repository.TopicRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -16,12 +16,16 @@ import java.util.stream.Collectors;
 public class TopicService {
 
     private final TopicRepository topicRepository;
+    private final ContentRepository contentRepository;
+    private final CursorPager cursorPager;
+    private final TopicCache topicCache;
+    private final InvalidationBus invalidationBus;
 
     @Transactional
     public TopicDTO createTopic(TopicDTO topicDTO) {
         log.info("Creating topic: {}", topicDTO.getName());
 
-        if (topicRepository.existsByName(topicDTO.getName())) {
+        if (topicCache.findByName(topicDTO.getName()).isPresent()) {
             throw new IllegalArgumentException("Topic with name '" + topicDTO.getName() + "' already exists");
         }
 
@@ -36,19 +40,17 @@ public class TopicService {
     }
 
     @Transactional(readOnly = true)
-    public List<TopicDTO> getAllTopics() {
-        log.info("Fetching all topics");
-        return topicRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public CursorPage<TopicDTO> getTopics(String cursor, Integer limit) {
+        log.info("Fetching topics");
+        return cursorPager.page(cursor, limit, topicRepository::findPageBefore, Topic::getId, this::convertToDTO);
     }
 
     @Transactional(readOnly = true)
     public TopicDTO getTopicById(Long id) {
         log.info("Fetching topic by ID: {}", id);
-        Topic topic = topicRepository.findById(id)
+        TopicCache.CachedTopic topic = topicCache.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Topic not found with ID: " + id));
-        return convertToDTO(topic);
+        return new TopicDTO(topic.id(), topic.name(), topic.description());
     }
 
     @Transactional
@@ -67,6 +69,7 @@ public class TopicService {
         topic.setDescription(topicDTO.getDescription());
 
         Topic updatedTopic = topicRepository.save(topic);
+        topicCache.invalidate(id);
         log.info("Topic updated successfully");
 
         return convertToDTO(updatedTopic);
@@ -80,7 +83,10 @@ public class TopicService {
             throw new IllegalArgumentException("Topic not found with ID: " + id);
         }
 
+        contentRepository.removeAdditionalTopic(id);
         topicRepository.deleteById(id);
+        topicCache.invalidate(id);
+        invalidationBus.publish(InvalidationBus.AUDIENCE, id);
         log.info("Topic deleted successfully");
     }
 
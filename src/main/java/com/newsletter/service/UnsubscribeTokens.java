@@ -0,0 +1,100 @@
+package com.newsletter.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Signs the unsubscribe links put in newsletters. A token is the subscriber
+ * id followed by a truncated HMAC-SHA256 of it under
+ * {@code newsletter.unsubscribe.secret}, Base64url-encoded, so a link works
+ * without logging in but cannot be made for another subscriber without the
+ * secret.
+ */
+@Component
+public class UnsubscribeTokens {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MIN_SECRET_LENGTH = 32;
+    private static final int MAC_LENGTH = 16;
+    private static final int TOKEN_LENGTH = Long.BYTES + MAC_LENGTH;
+
+    private final SecretKeySpec key;
+    private final String baseUrl;
+    private final ThreadLocal<Mac> macs;
+
+    public UnsubscribeTokens(@Value("${newsletter.unsubscribe.secret}") String secret,
+                             @Value("${newsletter.unsubscribe.base-url:http://localhost:8080/api/subscribers}") String baseUrl) {
+        if (secret == null || secret.length() < MIN_SECRET_LENGTH) {
+            throw new IllegalStateException(
+                    "newsletter.unsubscribe.secret must be at least " + MIN_SECRET_LENGTH + " characters");
+        }
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.baseUrl = baseUrl;
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /**
+     * The link that unsubscribes the subscriber.
+     */
+    public String url(long subscriberId) {
+        return baseUrl + "/unsubscribe?token=" + token(subscriberId);
+    }
+
+    public String token(long subscriberId) {
+        ByteBuffer token = ByteBuffer.allocate(TOKEN_LENGTH).putLong(subscriberId);
+        token.put(sign(subscriberId));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.array());
+    }
+
+    /**
+     * @return the id of the subscriber the token was made for
+     * @throws IllegalArgumentException if the token is malformed or its
+     *                                  signature does not match
+     */
+    public long verify(String token) {
+        byte[] decoded;
+        try {
+            decoded = token == null ? new byte[0] : Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            throw invalid();
+        }
+        if (decoded.length != TOKEN_LENGTH) {
+            throw invalid();
+        }
+
+        long subscriberId = ByteBuffer.wrap(decoded).getLong();
+        byte[] mac = Arrays.copyOfRange(decoded, Long.BYTES, TOKEN_LENGTH);
+        if (!MessageDigest.isEqual(mac, sign(subscriberId))) {
+            throw invalid();
+        }
+        return subscriberId;
+    }
+
+    private byte[] sign(long subscriberId) {
+        Mac mac = macs.get();
+        byte[] full = mac.doFinal(ByteBuffer.allocate(Long.BYTES).putLong(subscriberId).array());
+        return Arrays.copyOf(full, MAC_LENGTH);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot create " + ALGORITHM + " for unsubscribe links", e);
+        }
+    }
+
+    private static IllegalArgumentException invalid() {
+        return new IllegalArgumentException("Invalid unsubscribe link");
+    }
+}
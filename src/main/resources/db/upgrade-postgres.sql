@@ -0,0 +1,79 @@
+-- Manual upgrade steps for existing PostgreSQL databases.
+-- New tables and columns are created by Hibernate (ddl-auto=update); this
+-- script covers the changes ddl-auto cannot apply to tables that already exist.
+
+-- Content status gained SENDING; drop the enum check constraint Hibernate
+-- generated for the original values so the new status can be stored.
+ALTER TABLE contents DROP CONSTRAINT IF EXISTS contents_status_check;
+
+-- Email logs are unique per (content, subscriber). Keep the best row for each
+-- pair (a SUCCESS if there is one, otherwise the latest) before adding the key.
+DELETE FROM email_logs l USING (
+    SELECT id, ROW_NUMBER() OVER (PARTITION BY content_id, subscriber_id
+                                  ORDER BY (status = 'SUCCESS') DESC, sent_at DESC, id DESC) AS rn
+    FROM email_logs
+) ranked
+WHERE l.id = ranked.id AND ranked.rn > 1;
+ALTER TABLE email_logs ADD CONSTRAINT uk_email_logs_content_subscriber UNIQUE (content_id, subscriber_id);
+
+-- Retry bookkeeping on email logs. Existing rows count as a single attempt.
+ALTER TABLE email_logs ADD COLUMN IF NOT EXISTS attempts INTEGER;
+ALTER TABLE email_logs ADD COLUMN IF NOT EXISTS next_attempt_at TIMESTAMP;
+UPDATE email_logs SET attempts = 1 WHERE attempts IS NULL;
+CREATE INDEX IF NOT EXISTS idx_email_logs_status_next_attempt ON email_logs (status, next_attempt_at);
+
+-- Keyset pagination of filtered listings (newest first within a topic or status).
+CREATE INDEX IF NOT EXISTS idx_subscribers_topic_id ON subscribers (topic_id, id);
+CREATE INDEX IF NOT EXISTS idx_contents_topic_id ON contents (topic_id, id);
+CREATE INDEX IF NOT EXISTS idx_contents_status_id ON contents (status, id);
+
+-- Topics, subscribers, contents and email logs take ids from sequences that
+-- hand out blocks of 50 (Hibernate's pooled optimizer). Each sequence must
+-- start past the current ids; the next value is the top of the first block.
+-- The identity columns are left in place; ids are always supplied on insert.
+CREATE SEQUENCE IF NOT EXISTS topics_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS subscribers_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS contents_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS email_logs_seq INCREMENT BY 50;
+SELECT setval('topics_seq', COALESCE((SELECT MAX(id) FROM topics), 0) + 50, false);
+SELECT setval('subscribers_seq', COALESCE((SELECT MAX(id) FROM subscribers), 0) + 50, false);
+SELECT setval('contents_seq', COALESCE((SELECT MAX(id) FROM contents), 0) + 50, false);
+SELECT setval('email_logs_seq', COALESCE((SELECT MAX(id) FROM email_logs), 0) + 50, false);
+
+-- Subscriber attributes for segmented sends, and the segment a content targets.
+ALTER TABLE subscribers ADD COLUMN IF NOT EXISTS locale VARCHAR(35);
+ALTER TABLE subscribers ADD COLUMN IF NOT EXISTS engagement_tier VARCHAR(255);
+CREATE TABLE IF NOT EXISTS subscriber_tags (
+    subscriber_id BIGINT NOT NULL REFERENCES subscribers (id),
+    tag VARCHAR(50) NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_subscriber_tags_subscriber_id ON subscriber_tags (subscriber_id);
+ALTER TABLE contents ADD COLUMN IF NOT EXISTS segment VARCHAR(1000);
+
+-- Topics a content goes to besides its own.
+CREATE TABLE IF NOT EXISTS content_topics (
+    content_id BIGINT NOT NULL REFERENCES contents (id),
+    topic_id BIGINT NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_content_topics_content_id ON content_topics (content_id);
+CREATE INDEX IF NOT EXISTS idx_content_topics_topic_id ON content_topics (topic_id);
+
+-- Local-time delivery: subscriber time zones, and per-content bucket progress.
+ALTER TABLE subscribers ADD COLUMN IF NOT EXISTS time_zone VARCHAR(64);
+ALTER TABLE contents ADD COLUMN IF NOT EXISTS local_delivery BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE contents ADD COLUMN IF NOT EXISTS bucket_cursor INTEGER;
+
+-- Which sends the outbox owns; only those are completed by its poll.
+ALTER TABLE contents ADD COLUMN IF NOT EXISTS via_outbox BOOLEAN NOT NULL DEFAULT FALSE;
+UPDATE contents c SET via_outbox = TRUE
+WHERE c.status = 'SENDING' AND EXISTS (SELECT 1 FROM delivery_jobs d WHERE d.content_id = c.id);
+
+-- Send windows for paced content, measured from when the send was enqueued.
+ALTER TABLE contents ADD COLUMN IF NOT EXISTS send_window_minutes INTEGER;
+ALTER TABLE contents ADD COLUMN IF NOT EXISTS enqueued_at TIMESTAMP;
+
+-- Heartbeat of sends through a node's local pipeline; lapsed ones are resumed.
+ALTER TABLE contents ADD COLUMN IF NOT EXISTS heartbeat_at TIMESTAMP;
+-- Node that claimed the send in progress, so a new leader resumes its sends.
+ALTER TABLE contents ADD COLUMN IF NOT EXISTS claimed_by VARCHAR(255);
+CREATE INDEX IF NOT EXISTS idx_delivery_jobs_content_claimed_at ON delivery_jobs (content_id, claimed_at);
@@ -0,0 +1,55 @@
+package com.newsletter.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false) // Disable security for testing
+@ActiveProfiles("test")
+class ExportIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void exportSubscribers_StreamsCsvWithHeader() throws Exception {
+        // Act
+        MvcResult started = mockMvc.perform(get("/api/subscribers/export")
+                .param("format", "csv")
+                .param("topicId", "-1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"subscribers.csv\""))
+                .andReturn();
+
+        // Assert
+        assertEquals("id,email,name,topic_id,topic_name,active,subscribed_at\n",
+                result.getResponse().getContentAsString());
+    }
+
+    @Test
+    void exportSubscribers_UnknownFormat_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/subscribers/export").param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void exportEmailLogs_UnknownContent_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/content/999999/email-logs/export"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+}
@@ -0,0 +1,126 @@
+package com.newsletter.controller;
+
+import com.newsletter.model.Content;
+import com.newsletter.model.Subscriber;
+import com.newsletter.model.Topic;
+import com.newsletter.repository.ContentRepository;
+import com.newsletter.repository.SubscriberRepository;
+import com.newsletter.repository.TopicRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Guards read endpoints against N+1 queries: each request must issue the
+ * same small number of statements however many rows, each on its own topic,
+ * it returns.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false) // Disable security for testing
+@ActiveProfiles("test")
+@Transactional
+class QueryCountIntegrationTest {
+
+    private static final int ROWS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TopicRepository topicRepository;
+
+    @Autowired
+    private SubscriberRepository subscriberRepository;
+
+    @Autowired
+    private ContentRepository contentRepository;
+
+    private Topic firstTopic;
+    private Subscriber firstSubscriber;
+    private Content firstContent;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < ROWS; i++) {
+            Topic topic = new Topic();
+            topic.setName("Query Count Topic " + i);
+            topic = topicRepository.save(topic);
+
+            Subscriber subscriber = new Subscriber();
+            subscriber.setEmail("reader" + i + "@example.com");
+            subscriber.setName("Reader " + i);
+            subscriber.setTopic(topic);
+            subscriber = subscriberRepository.save(subscriber);
+
+            Content content = new Content();
+            content.setSubject("Issue " + i);
+            content.setBody("Body " + i);
+            content.setTopic(topic);
+            content.setScheduledTime(LocalDateTime.now().plusDays(1));
+            content = contentRepository.save(content);
+
+            if (i == 0) {
+                firstTopic = topic;
+                firstSubscriber = subscriber;
+                firstContent = content;
+            }
+        }
+
+        // Start every request from an empty persistence context, as a real request would
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void listTopics_IssuesOneStatement() throws Exception {
+        assertStatements(1, get("/api/topics"));
+    }
+
+    @Test
+    void listSubscribers_IssuesOneStatement() throws Exception {
+        assertStatements(1, get("/api/subscribers"));
+    }
+
+    @Test
+    void listSubscribersByTopic_IssuesTwoStatements() throws Exception {
+        assertStatements(2, get("/api/subscribers/topic/{topicId}", firstTopic.getId()));
+    }
+
+    @Test
+    void getSubscriber_IssuesOneStatement() throws Exception {
+        assertStatements(1, get("/api/subscribers/{id}", firstSubscriber.getId()));
+    }
+
+    @Test
+    void listContent_IssuesOneStatement() throws Exception {
+        assertStatements(1, get("/api/content"));
+    }
+
+    @Test
+    void getContent_IssuesOneStatement() throws Exception {
+        assertStatements(1, get("/api/content/{id}", firstContent.getId()));
+    }
+
+    private void assertStatements(int expected, RequestBuilder request) throws Exception {
+        SqlStatementCounter.reset();
+
+        mockMvc.perform(request).andExpect(status().isOk());
+
+        assertEquals(expected, SqlStatementCounter.count());
+    }
+}
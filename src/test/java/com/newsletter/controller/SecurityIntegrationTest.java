@@ -0,0 +1,38 @@
+package com.newsletter.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SecurityIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void exportEmailLogs_WithoutCredentials_ReturnsUnauthorized() throws Exception {
+        mockMvc.perform(get("/api/content/1/email-logs/export"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void exportSubscribers_WithoutCredentials_ReturnsUnauthorized() throws Exception {
+        mockMvc.perform(get("/api/subscribers/export"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void getTopics_WithoutCredentials_IsAllowed() throws Exception {
+        mockMvc.perform(get("/api/topics"))
+                .andExpect(status().isOk());
+    }
+}
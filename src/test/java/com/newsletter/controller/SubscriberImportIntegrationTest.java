@@ -0,0 +1,108 @@
+package com.newsletter.controller;
+
+import com.newsletter.model.Subscriber;
+import com.newsletter.model.Subscriber.EngagementTier;
+import com.newsletter.model.Topic;
+import com.newsletter.repository.SubscriberRepository;
+import com.newsletter.repository.TopicRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false) // Disable security for testing
+@ActiveProfiles("test")
+@Transactional
+class SubscriberImportIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TopicRepository topicRepository;
+
+    @Autowired
+    private SubscriberRepository subscriberRepository;
+
+    private Topic topic;
+
+    @BeforeEach
+    void setUp() {
+        topic = new Topic();
+        topic.setName("Import Test Topic");
+        topic.setDescription("Import Test Description");
+        topic = topicRepository.save(topic);
+    }
+
+    @Test
+    void importCsv_UpsertsValidRowsAndReportsInvalidOnes() throws Exception {
+        String csv = "email,name\n" +
+                "alice@example.com,Alice\n" +
+                "not-an-email,Bob\n" +
+                "\"carol@example.com\",\"Carol, Jr.\"\n" +
+                "alice@example.com,Alice Smith\n";
+
+        mockMvc.perform(post("/api/subscribers/import")
+                .param("topicId", topic.getId().toString())
+                .contentType("text/csv")
+                .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.processed").value(4))
+                .andExpect(jsonPath("$.data.imported").value(3))
+                .andExpect(jsonPath("$.data.failed").value(1))
+                .andExpect(jsonPath("$.data.errors[0].line").value(3));
+
+        assertEquals(2, subscriberRepository.findByTopicAndActiveTrue(topic).size());
+        assertEquals("Alice Smith", subscriberRepository.findByEmailAndTopic("alice@example.com", topic)
+                .orElseThrow().getName());
+    }
+
+    @Test
+    void importCsv_WithSegmentationAttributes_PersistsThem() throws Exception {
+        String csv = "email,name,locale,time_zone,engagement_tier,tags\n" +
+                "frank@example.com,Frank,pt_BR,Europe/Lisbon,high,Beta;early-adopter\n" +
+                "grace@example.com,Grace,,,,\n" +
+                "frank@example.com,Frank,,,,beta\n";
+
+        mockMvc.perform(post("/api/subscribers/import")
+                .param("topicId", topic.getId().toString())
+                .contentType("text/csv")
+                .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.imported").value(3));
+
+        Subscriber frank = subscriberRepository.findByEmailAndTopic("frank@example.com", topic).orElseThrow();
+        assertEquals("pt-br", frank.getLocale());
+        assertEquals("Europe/Lisbon", frank.getTimeZone());
+        assertEquals(EngagementTier.HIGH, frank.getEngagementTier());
+        assertEquals(List.of("beta"), subscriberRepository.findTagsBySubscriberId(frank.getId()));
+        Subscriber grace = subscriberRepository.findByEmailAndTopic("grace@example.com", topic).orElseThrow();
+        assertNull(grace.getLocale());
+        assertTrue(subscriberRepository.findTagsBySubscriberId(grace.getId()).isEmpty());
+    }
+
+    @Test
+    void importNdjson_UnknownTopic_ReportsRowError() throws Exception {
+        String ndjson = "{\"email\":\"dave@example.com\",\"name\":\"Dave\",\"topicId\":" + topic.getId() + "}\n" +
+                "{\"email\":\"erin@example.com\",\"name\":\"Erin\",\"topicId\":999999}\n";
+
+        mockMvc.perform(post("/api/subscribers/import")
+                .contentType("application/x-ndjson")
+                .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.imported").value(1))
+                .andExpect(jsonPath("$.data.errors[0].message").value("Topic not found with ID: 999999"));
+    }
+}
@@ -62,6 +62,31 @@ class TopicControllerIntegrationTest {
                 .andExpect(jsonPath("$.data").isArray());
     }
 
+    @Test
+    void getAllTopics_WithLimit_ReturnsNextCursor() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            TopicDTO topicDTO = new TopicDTO();
+            topicDTO.setName("Paged Topic " + i);
+            mockMvc.perform(post("/api/topics")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(topicDTO)))
+                    .andExpect(status().isCreated());
+        }
+
+        mockMvc.perform(get("/api/topics").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.data[0].name").value("Paged Topic 3"))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty());
+    }
+
+    @Test
+    void getAllTopics_InvalidLimit_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/topics").param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
     @Test
     void getTopicById_NotFound() throws Exception {
         mockMvc.perform(get("/api/topics/99999"))
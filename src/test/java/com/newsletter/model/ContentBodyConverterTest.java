@@ -0,0 +1,50 @@
+package com.newsletter.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentBodyConverterTest {
+
+    private final ContentBodyConverter converter = new ContentBodyConverter(true, 100);
+
+    @Test
+    void largeBody_IsCompressedAndRestored() {
+        // Arrange
+        String body = "All the news that fits. ".repeat(200);
+
+        // Act
+        String stored = converter.convertToDatabaseColumn(body);
+
+        // Assert
+        assertTrue(stored.startsWith(ContentBodyConverter.PREFIX));
+        assertTrue(stored.length() < body.length());
+        assertEquals(body, converter.convertToEntityAttribute(stored));
+    }
+
+    @Test
+    void smallBodyOrCompressionDisabled_IsStoredAsIs() {
+        // Arrange
+        String small = "Short note";
+        String large = "All the news that fits. ".repeat(200);
+        ContentBodyConverter disabled = new ContentBodyConverter(false, 100);
+
+        // Act & Assert
+        assertEquals(small, converter.convertToDatabaseColumn(small));
+        assertEquals(large, disabled.convertToDatabaseColumn(large));
+        assertEquals(large, disabled.convertToEntityAttribute(converter.convertToDatabaseColumn(large)));
+    }
+
+    @Test
+    void bodyStartingWithMarker_RoundTripsUnchanged() {
+        // Arrange
+        String body = ContentBodyConverter.PREFIX + "not actually compressed";
+        ContentBodyConverter disabled = new ContentBodyConverter(false, 100);
+
+        // Act
+        String stored = disabled.convertToDatabaseColumn(body);
+
+        // Assert
+        assertEquals(body, disabled.convertToEntityAttribute(stored));
+    }
+}
@@ -0,0 +1,101 @@
+package com.newsletter.service;
+
+import com.newsletter.dto.DigestRecipient;
+import com.newsletter.dto.Recipient;
+import com.newsletter.model.Content;
+import com.newsletter.model.Topic;
+import com.newsletter.repository.SubscriberRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AudienceReaderTest {
+
+    private static final List<Long> TOPIC_IDS = List.of(1L, 2L);
+
+    @Mock
+    private SubscriberRepository subscriberRepository;
+
+    @Mock
+    private AudienceIndex audienceIndex;
+
+    @Mock
+    private SegmentIndex segmentIndex;
+
+    @InjectMocks
+    private AudienceReader audienceReader;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(audienceReader, "chunkSize", 2);
+    }
+
+    @Test
+    void forEachEmailChunk_EmailSpanningPages_StaysInOneChunk() {
+        // Arrange
+        when(subscriberRepository.findActiveDigestRecipientsAfter(eq(TOPIC_IDS), eq(""), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(row(1L, "a@example.com"), row(2L, "b@example.com")));
+        when(subscriberRepository.findActiveDigestRecipientsAfter(eq(TOPIC_IDS), eq("b@example.com"), eq(2L), any(Pageable.class)))
+                .thenReturn(List.of(row(3L, "b@example.com"), row(4L, "c@example.com")));
+        when(subscriberRepository.findActiveDigestRecipientsAfter(eq(TOPIC_IDS), eq("c@example.com"), eq(4L), any(Pageable.class)))
+                .thenReturn(List.of(row(5L, "c@example.com")));
+        List<List<Long>> chunks = new ArrayList<>();
+
+        // Act
+        long total = audienceReader.forEachEmailChunk(TOPIC_IDS,
+                chunk -> chunks.add(chunk.stream().map(DigestRecipient::subscriberId).toList()));
+
+        // Assert
+        assertEquals(5, total);
+        assertEquals(List.of(List.of(1L), List.of(2L, 3L), List.of(4L, 5L)), chunks);
+    }
+
+    @Test
+    void forContent_AdditionalTopics_SendsOncePerEmail() {
+        // Arrange
+        Topic topic = new Topic();
+        topic.setId(1L);
+        Content content = new Content();
+        content.setTopic(topic);
+        content.getAdditionalTopicIds().add(2L);
+        when(subscriberRepository.findActiveRecipientsByTopicIdAfter(eq(1L), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(recipient(1L, "a@example.com"), recipient(2L, "b@example.com")));
+        when(subscriberRepository.findActiveRecipientsByTopicIdAfter(eq(1L), eq(2L), any(Pageable.class)))
+                .thenReturn(List.of());
+        when(subscriberRepository.findActiveRecipientsByTopicIdAfter(eq(2L), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(recipient(7L, "B@Example.com"), recipient(8L, "c@example.com")));
+        when(subscriberRepository.findActiveRecipientsByTopicIdAfter(eq(2L), eq(8L), any(Pageable.class)))
+                .thenReturn(List.of());
+        List<List<Long>> chunks = new ArrayList<>();
+
+        // Act
+        long total = audienceReader.forContent(content).forEachChunk(
+                chunk -> chunks.add(chunk.stream().map(Recipient::subscriberId).toList()));
+
+        // Assert
+        assertEquals(3, total);
+        assertEquals(List.of(List.of(1L, 2L), List.of(8L)), chunks);
+    }
+
+    private Recipient recipient(Long id, String email) {
+        return new Recipient(id, email, "User " + id);
+    }
+
+    private DigestRecipient row(Long id, String email) {
+        return new DigestRecipient(id, email, "User " + id, id % 2 + 1);
+    }
+}
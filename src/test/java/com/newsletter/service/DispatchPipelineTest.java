@@ -0,0 +1,259 @@
+package com.newsletter.service;
+
+import com.newsletter.config.PipelineProperties;
+import com.newsletter.dto.DigestRecipient;
+import com.newsletter.dto.Recipient;
+import com.newsletter.model.Content;
+import com.newsletter.model.EmailLog.EmailStatus;
+import com.newsletter.model.Topic;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.InternetAddress;
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DispatchPipelineTest {
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private EmailLogWriter emailLogWriter;
+
+    @Mock
+    private DeliveryDeduplicator deliveryDeduplicator;
+
+    private DispatchPipeline dispatchPipeline;
+    private Content content;
+
+    @BeforeEach
+    void setUp() {
+        PipelineProperties properties = new PipelineProperties();
+        properties.setSender(new PipelineProperties.Stage(2, 10));
+        properties.setRenderer(new PipelineProperties.Stage(1, 2));
+
+        dispatchPipeline = new DispatchPipeline(emailService, emailLogWriter, deliveryDeduplicator,
+                new RetryPolicy(3, 1000, 60000), new SimpleAsyncTaskExecutor("pipeline-test-"), properties, 0L);
+        dispatchPipeline.start();
+        when(deliveryDeduplicator.load(10L)).thenReturn(DeliveredRecipients.NONE);
+
+        Topic topic = new Topic();
+        topic.setId(1L);
+        topic.setName("Technology");
+
+        content = new Content();
+        content.setId(10L);
+        content.setSubject("Weekly Update");
+        content.setBody("News");
+        content.setTopic(topic);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatchPipeline.stop();
+    }
+
+    @Test
+    void submit_AllRecipientsDelivered_CompletesWithSuccessCount() throws Exception {
+        // Arrange
+        when(emailService.formatEmailBody(any(DispatchJob.class), any(Recipient.class))).thenReturn("body");
+        AudienceSource source = handler -> {
+            handler.accept(List.of(recipient(1L), recipient(2L)));
+            handler.accept(List.of(recipient(3L)));
+            return 3;
+        };
+
+        // Act
+        DispatchResult result = dispatchPipeline.submit(new DispatchJob(content, source))
+                .get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(3, result.succeeded());
+        assertEquals(0, result.failed());
+        verify(emailService, times(3)).send(anyString(), eq("Weekly Update"), eq("body"));
+        verify(emailLogWriter, times(3)).append(any(EmailLogRecord.class));
+    }
+
+    @Test
+    void stop_JobStillSending_AbortsIt() throws Exception {
+        // Arrange
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(emailService.formatEmailBody(any(DispatchJob.class), any(Recipient.class))).thenReturn("body");
+        doAnswer(invocation -> {
+            sending.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(emailService).send(anyString(), anyString(), anyString());
+        AudienceSource source = handler -> {
+            handler.accept(List.of(recipient(1L)));
+            return 1;
+        };
+        CompletableFuture<DispatchResult> completion = dispatchPipeline.submit(new DispatchJob(content, source));
+        assertTrue(sending.await(5, TimeUnit.SECONDS));
+
+        // Act
+        dispatchPipeline.stop();
+        release.countDown();
+
+        // Assert
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> completion.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+    }
+
+    @Test
+    void submit_SendFails_CountsFailure() throws Exception {
+        // Arrange
+        when(emailService.formatEmailBody(any(DispatchJob.class), any(Recipient.class))).thenReturn("body");
+        doAnswer(invocation -> {
+            if ("user2@example.com".equals(invocation.getArgument(0))) {
+                throw new MessagingException("relay unavailable");
+            }
+            return null;
+        }).when(emailService).send(anyString(), anyString(), anyString());
+        AudienceSource source = handler -> {
+            handler.accept(List.of(recipient(1L), recipient(2L)));
+            return 2;
+        };
+
+        // Act
+        DispatchResult result = dispatchPipeline.submit(new DispatchJob(content, source))
+                .get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(1, result.succeeded());
+        assertEquals(1, result.failed());
+    }
+
+    @Test
+    void submit_TransientAndPermanentFailures_LogsRetryAndFailed() throws Exception {
+        // Arrange
+        when(emailService.formatEmailBody(any(DispatchJob.class), any(Recipient.class))).thenReturn("body");
+        doAnswer(invocation -> {
+            String to = invocation.getArgument(0);
+            int code = "user1@example.com".equals(to) ? 451 : 550;
+            throw new SMTPAddressFailedException(new InternetAddress(to), "RCPT TO", code, "rejected");
+        }).when(emailService).send(anyString(), anyString(), anyString());
+        AudienceSource source = handler -> {
+            handler.accept(List.of(recipient(1L), recipient(2L)));
+            return 2;
+        };
+
+        // Act
+        DispatchResult result = dispatchPipeline.submit(new DispatchJob(content, source))
+                .get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(2, result.failed());
+        ArgumentCaptor<EmailLogRecord> captor = ArgumentCaptor.forClass(EmailLogRecord.class);
+        verify(emailLogWriter, times(2)).append(captor.capture());
+        Map<Long, EmailLogRecord> records = captor.getAllValues().stream()
+                .collect(Collectors.toMap(EmailLogRecord::subscriberId, record -> record));
+        assertEquals(EmailStatus.RETRY, records.get(1L).status());
+        assertNotNull(records.get(1L).nextAttemptAt());
+        assertEquals(EmailStatus.FAILED, records.get(2L).status());
+        assertNull(records.get(2L).nextAttemptAt());
+    }
+
+    @Test
+    void submit_AlreadyDeliveredRecipients_AreSkipped() throws Exception {
+        // Arrange
+        BloomFilter filter = BloomFilter.create(1, 0.01);
+        filter.put(2L);
+        when(deliveryDeduplicator.load(10L)).thenReturn(new DeliveredRecipients(filter, ids -> Set.of(2L)));
+        when(emailService.formatEmailBody(any(DispatchJob.class), any(Recipient.class))).thenReturn("body");
+        AudienceSource source = handler -> {
+            handler.accept(List.of(recipient(1L), recipient(2L), recipient(3L)));
+            return 3;
+        };
+
+        // Act
+        DispatchResult result = dispatchPipeline.submit(new DispatchJob(content, source))
+                .get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(2, result.succeeded());
+        assertEquals(1, result.skipped());
+        verify(emailService, never()).send(eq("user2@example.com"), anyString(), anyString());
+    }
+
+    @Test
+    void submitDigest_SharedEmail_SendsOneMessageAndLogsEachContent() throws Exception {
+        // Arrange
+        Topic sports = new Topic();
+        sports.setId(2L);
+        sports.setName("Sports");
+        Content second = new Content();
+        second.setId(11L);
+        second.setSubject("Match Report");
+        second.setBody("Scores");
+        second.setTopic(sports);
+
+        when(deliveryDeduplicator.load(11L)).thenReturn(DeliveredRecipients.NONE);
+        when(emailService.formatDigestSubject(anyList())).thenReturn("digest");
+        when(emailService.formatDigestBody(anyList())).thenReturn("digest body");
+        when(emailService.formatEmailBody(any(DispatchJob.class), any(Recipient.class))).thenReturn("body");
+
+        DispatchJob tech = new DispatchJob(content, handler -> 0);
+        DispatchJob match = new DispatchJob(second, handler -> 0);
+        DigestAudienceSource source = handler -> {
+            handler.accept(List.of(
+                    new DigestRecipient(1L, "both@example.com", "Both", 1L),
+                    new DigestRecipient(2L, "both@example.com", "Both", 2L),
+                    new DigestRecipient(3L, "tech@example.com", "Tech", 1L)));
+            return 3;
+        };
+
+        // Act
+        dispatchPipeline.submitDigest(new DigestJob(List.of(tech, match), source));
+        DispatchResult techResult = tech.getCompletion().get(5, TimeUnit.SECONDS);
+        DispatchResult matchResult = match.getCompletion().get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(2, techResult.succeeded());
+        assertEquals(1, matchResult.succeeded());
+        verify(emailService, times(1)).send("both@example.com", "digest", "digest body");
+        verify(emailService, times(1)).send("tech@example.com", "Weekly Update", "body");
+        verify(emailLogWriter, times(3)).append(any(EmailLogRecord.class));
+    }
+
+    @Test
+    void submit_EmptyAudience_CompletesImmediately() throws Exception {
+        // Act
+        DispatchResult result = dispatchPipeline.submit(new DispatchJob(content, handler -> 0))
+                .get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(0, result.succeeded());
+        assertEquals(0, result.failed());
+        verifyNoInteractions(emailService);
+    }
+
+    private Recipient recipient(Long id) {
+        return new Recipient(id, "user" + id + "@example.com", "User " + id);
+    }
+}
@@ -0,0 +1,38 @@
+package com.newsletter.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailHashSetTest {
+
+    @Test
+    void add_SameAddressInOtherCaseOrPadding_IsDuplicate() {
+        // Arrange
+        EmailHashSet seen = new EmailHashSet(16);
+
+        // Act & Assert
+        assertTrue(seen.add("John@Example.com"));
+        assertFalse(seen.add("john@example.com"));
+        assertFalse(seen.add("  JOHN@EXAMPLE.COM "));
+        assertTrue(seen.add("jane@example.com"));
+        assertEquals(2, seen.size());
+    }
+
+    @Test
+    void add_ManyAddresses_GrowsAndKeepsAll() {
+        // Arrange
+        EmailHashSet seen = new EmailHashSet(16);
+
+        // Act
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(seen.add("user" + i + "@example.com"));
+        }
+
+        // Assert
+        assertEquals(100_000, seen.size());
+        for (int i = 0; i < 100_000; i++) {
+            assertFalse(seen.add("USER" + i + "@example.com"));
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.newsletter.service;
+
+import com.newsletter.config.DatabasePlatform;
+import com.newsletter.model.EmailLog.EmailStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailLogWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private DatabasePlatform databasePlatform;
+
+    private EmailLogWriter emailLogWriter;
+
+    @BeforeEach
+    void setUp() {
+        emailLogWriter = new EmailLogWriter(jdbcTemplate, transactionManager, databasePlatform, 3, 10);
+    }
+
+    @Test
+    void append_BelowBatchSize_BuffersWithoutWriting() {
+        // Act
+        emailLogWriter.append(record(1L));
+        emailLogWriter.append(record(2L));
+
+        // Assert
+        assertEquals(2, emailLogWriter.pending());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void append_ReachingBatchSize_WritesOneBatch() {
+        // Act
+        emailLogWriter.append(record(1L));
+        emailLogWriter.append(record(2L));
+        emailLogWriter.append(record(3L));
+
+        // Assert
+        assertEquals(0, emailLogWriter.pending());
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList(), eq(3),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    void flush_NotifiesListenersAfterWrite() {
+        // Arrange
+        List<EmailLogRecord> flushed = new ArrayList<>();
+        emailLogWriter.onFlush(flushed::addAll);
+        emailLogWriter.append(record(1L));
+
+        // Act
+        int written = emailLogWriter.flush();
+
+        // Assert
+        assertEquals(1, written);
+        assertEquals(1, flushed.size());
+        assertEquals(1L, flushed.get(0).subscriberId());
+    }
+
+    @Test
+    void flush_WriteFails_KeepsRecordsForNextFlush() {
+        // Arrange
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new RuntimeException("connection refused"));
+        emailLogWriter.append(record(1L));
+
+        // Act
+        int written = emailLogWriter.flush();
+
+        // Assert
+        assertEquals(0, written);
+        assertEquals(1, emailLogWriter.pending());
+    }
+
+    @Test
+    void flush_OneRowRejected_WritesTheOthersAndDropsIt() {
+        // Arrange
+        List<EmailLogRecord> flushed = new ArrayList<>();
+        emailLogWriter.onFlush(flushed::addAll);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    List<EmailLogRecord> rows = invocation.getArgument(1);
+                    if (rows.stream().anyMatch(row -> row.subscriberId() == 2L)) {
+                        throw new DataIntegrityViolationException("value too long");
+                    }
+                    return new int[][] {new int[rows.size()]};
+                });
+        emailLogWriter.append(record(1L));
+        emailLogWriter.append(record(2L));
+
+        // Act
+        int written = emailLogWriter.flush();
+
+        // Assert
+        assertEquals(1, written);
+        assertEquals(0, emailLogWriter.pending());
+        assertEquals(List.of(1L), flushed.stream().map(EmailLogRecord::subscriberId).toList());
+    }
+
+    private EmailLogRecord record(Long subscriberId) {
+        return new EmailLogRecord(10L, subscriberId, "user" + subscriberId + "@example.com",
+                EmailStatus.SUCCESS, null, LocalDateTime.now(), 1, null);
+    }
+}
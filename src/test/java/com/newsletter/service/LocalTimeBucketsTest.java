@@ -0,0 +1,57 @@
+package com.newsletter.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalTimeBucketsTest {
+
+    private static final LocalDateTime NINE_AM = LocalDateTime.of(2025, 3, 10, 9, 0);
+
+    @Test
+    void dueFrom_TimeReachedInTokyoButNotLondon() {
+        // Arrange: 00:00 UTC is 09:00 in Tokyo (+09:00) and 00:00 in London (+00:00)
+        Instant now = NINE_AM.minusHours(9).toInstant(ZoneOffset.UTC);
+
+        // Act
+        int dueFrom = LocalTimeBuckets.dueFrom(NINE_AM, now);
+
+        // Assert
+        assertEquals(9 * 3600, dueFrom);
+        assertTrue(LocalTimeBuckets.offset(NINE_AM, ZoneId.of("Asia/Tokyo")) >= dueFrom);
+        assertTrue(LocalTimeBuckets.offset(NINE_AM, ZoneId.of("Europe/London")) < dueFrom);
+    }
+
+    @Test
+    void dueFrom_ClampedToRealOffsets() {
+        // Act & Assert
+        assertEquals(LocalTimeBuckets.NONE_SENT,
+                LocalTimeBuckets.dueFrom(NINE_AM, NINE_AM.minusDays(3).toInstant(ZoneOffset.UTC)));
+        assertEquals(ZoneOffset.MIN.getTotalSeconds(),
+                LocalTimeBuckets.dueFrom(NINE_AM, NINE_AM.plusDays(3).toInstant(ZoneOffset.UTC)));
+    }
+
+    @Test
+    void offset_FollowsDaylightSavingAtTheScheduledTime() {
+        // Act & Assert: US daylight saving time started on 2025-03-09
+        assertEquals(-4 * 3600, LocalTimeBuckets.offset(NINE_AM, ZoneId.of("America/New_York")));
+        assertEquals(-5 * 3600, LocalTimeBuckets.offset(NINE_AM.minusDays(2), ZoneId.of("America/New_York")));
+    }
+
+    @Test
+    void fireTime_LocalDeliveryFiresWhenUtcPlus14IsDue() {
+        // Arrange
+        LocalDateTime expected = LocalDateTime.ofInstant(
+                NINE_AM.toInstant(ZoneOffset.ofHours(14)), ZoneId.systemDefault());
+
+        // Act & Assert
+        assertEquals(expected, LocalTimeBuckets.fireTime(NINE_AM, true));
+        assertEquals(NINE_AM, LocalTimeBuckets.fireTime(NINE_AM, false));
+        assertNull(LocalTimeBuckets.fireTime(null, true));
+    }
+}
@@ -0,0 +1,68 @@
+package com.newsletter.service;
+
+import com.newsletter.dto.Recipient;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.LongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageTemplateTest {
+
+    private static final String BASE_URL = "https://news.example.com/api/subscribers";
+    private static final LongFunction<String> UNSUBSCRIBE_URL = id -> BASE_URL + "/unsubscribe?token=t" + id;
+
+    @Test
+    void render_ShouldMatchStandardLayout() {
+        // Arrange
+        MessageTemplate template = MessageTemplate.compile("Weekly news", "Tech", UNSUBSCRIBE_URL);
+
+        // Act
+        String result = template.render(new Recipient(1L, "john@example.com", "John"));
+
+        // Assert
+        assertEquals("Hi John,\n\nWeekly news\n\n---\nTopic: Tech\n\nTo unsubscribe, please contact us.", result);
+    }
+
+    @Test
+    void render_ShouldSubstitutePlaceholdersPerRecipient() {
+        // Arrange
+        MessageTemplate template = MessageTemplate.compile(
+                "Sent to {{email}}. Leave: {{ unsubscribe_url }}", "Tech", UNSUBSCRIBE_URL);
+
+        // Act
+        String first = template.render(new Recipient(1L, "john@example.com", "John"));
+        String second = template.render(new Recipient(2L, "jane@example.com", "Jane"));
+
+        // Assert
+        assertTrue(first.contains("Sent to john@example.com. Leave: " + BASE_URL + "/unsubscribe?token=t1"));
+        assertTrue(second.startsWith("Hi Jane,"));
+        assertTrue(second.contains("Sent to jane@example.com. Leave: " + BASE_URL + "/unsubscribe?token=t2"));
+    }
+
+    @Test
+    void render_ShouldKeepUnknownPlaceholdersAndFormatCharacters() {
+        // Arrange
+        MessageTemplate template = MessageTemplate.compile("50% off {{coupon}} {{name", "Deals", UNSUBSCRIBE_URL);
+
+        // Act
+        String result = template.render(new Recipient(1L, "john@example.com", "John"));
+
+        // Assert
+        assertTrue(result.contains("50% off {{coupon}} {{name\n"));
+    }
+
+    @Test
+    void compileSection_ShouldRenderSubjectBodyAndTopicOnly() {
+        // Arrange
+        MessageTemplate section = MessageTemplate.compileSection("Weekly Update", "Hello {{name}}", "Tech",
+                UNSUBSCRIBE_URL);
+        StringBuilder out = new StringBuilder("Digest: ");
+
+        // Act
+        section.renderTo(out, new Recipient(1L, "john@example.com", "John"));
+
+        // Assert
+        assertEquals("Digest: Weekly Update\n\nHello John\n\nTopic: Tech", out.toString());
+    }
+}
@@ -0,0 +1,261 @@
+package com.newsletter.service;
+
+import com.newsletter.model.Content;
+import com.newsletter.model.Content.ContentStatus;
+import com.newsletter.model.Topic;
+import com.newsletter.repository.ContentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NewsletterSchedulerServiceTest {
+
+    @Mock
+    private ContentService contentService;
+
+    @Mock
+    private ContentRepository contentRepository;
+
+    @Mock
+    private AudienceReader audienceReader;
+
+    @Mock
+    private DispatchPipeline dispatchPipeline;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private LeaderElection leaderElection;
+
+    @Mock
+    private NodeIdentity nodeIdentity;
+
+    @Mock
+    private SegmentIndex segmentIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private NewsletterSchedulerService schedulerService;
+
+    private Content content;
+
+    @BeforeEach
+    void setUp() {
+        Topic topic = new Topic();
+        topic.setId(1L);
+        topic.setName("Technology");
+
+        content = new Content();
+        content.setId(10L);
+        content.setSubject("Weekly Update");
+        content.setBody("News");
+        content.setTopic(topic);
+        content.setScheduledTime(LocalDateTime.now());
+        content.setStatus(ContentStatus.SCHEDULED);
+    }
+
+    @Test
+    void sendNewsletterToSubscribers_PacedContentWithOutboxEnabled_EnqueuesIt() {
+        // Arrange
+        content.setSendWindowMinutes(45);
+        claimSucceeds();
+        when(outboxService.isEnabled()).thenReturn(true);
+
+        // Act
+        boolean claimed = schedulerService.sendNewsletterToSubscribers(content);
+
+        // Assert
+        assertTrue(claimed);
+        verify(outboxService).enqueue(content);
+        verifyNoInteractions(dispatchPipeline);
+    }
+
+    @Test
+    void sendNewsletterToSubscribers_UnpacedContentWithOutboxEnabled_EnqueuesIt() {
+        // Arrange
+        claimSucceeds();
+        when(outboxService.isEnabled()).thenReturn(true);
+
+        // Act
+        boolean claimed = schedulerService.sendNewsletterToSubscribers(content);
+
+        // Assert
+        assertTrue(claimed);
+        verify(outboxService).enqueue(content);
+        verifyNoInteractions(dispatchPipeline);
+    }
+
+    @Test
+    void sendNewsletterToSubscribers_PacedContentWithOutboxDisabled_PacesLocalPipeline() {
+        // Arrange
+        content.setSendWindowMinutes(45);
+        AudienceSource source = handler -> 0;
+        claimSucceeds();
+        when(outboxService.isEnabled()).thenReturn(false);
+        when(audienceReader.forContent(content)).thenReturn(source);
+        when(audienceReader.countAudience(content)).thenReturn(3L);
+        when(dispatchPipeline.submit(any(DispatchJob.class))).thenReturn(new CompletableFuture<>());
+
+        // Act
+        boolean claimed = schedulerService.sendNewsletterToSubscribers(content);
+
+        // Assert
+        assertTrue(claimed);
+        verify(outboxService, never()).enqueue(any(Content.class));
+        ArgumentCaptor<DispatchJob> job = ArgumentCaptor.forClass(DispatchJob.class);
+        verify(dispatchPipeline).submit(job.capture());
+        assertTrue(job.getValue().isPaced());
+        assertEquals(3L, job.getValue().getExpectedRecipients());
+    }
+
+    @Test
+    void dispatchDueContents_LocalTimeBucketWithOutboxEnabled_EnqueuesItWithTheCursor() {
+        // Arrange
+        content.setLocalDelivery(true);
+        content.setBucketCursor(LocalTimeBuckets.NONE_SENT);
+        content.setScheduledTime(LocalDateTime.now().minusDays(1));
+        when(contentRepository.findByIdWithTopic(10L)).thenReturn(Optional.of(content));
+        when(segmentIndex.offsets(any(LocalDateTime.class), any(ZoneId.class))).thenReturn(new TreeSet<>(Set.of(0)));
+        when(segmentIndex.withOffsetBetween(any(LocalDateTime.class), any(ZoneId.class), anyInt(), anyInt()))
+                .thenReturn(Roaring64NavigableMap.bitmapOf(1L, 2L));
+        when(nodeIdentity.getNodeId()).thenReturn("node-a");
+        when(contentRepository.advanceBucketCursor(eq(10L), eq(LocalTimeBuckets.NONE_SENT), anyInt(),
+                eq(ContentStatus.SCHEDULED), eq(ContentStatus.SENDING), eq("node-a"), any(LocalDateTime.class)))
+                .thenReturn(1);
+        when(audienceReader.forContent(content)).thenReturn(handler -> 0);
+        when(outboxService.isEnabled()).thenReturn(true);
+
+        // Act
+        schedulerService.dispatchDueContents(List.of(10L));
+
+        // Assert
+        verify(outboxService).enqueueBucket(eq(content), any(AudienceSource.class));
+        verifyNoInteractions(dispatchPipeline);
+    }
+
+    @Test
+    void resumeStaleSends_LocalSendWithLapsedHeartbeat_ResumesIt() {
+        // Arrange
+        content.setStatus(ContentStatus.SENDING);
+        when(nodeIdentity.getNodeId()).thenReturn("node-a");
+        when(leaderElection.isLeader()).thenReturn(true);
+        when(contentRepository.findStaleSends(eq(ContentStatus.SENDING), any(LocalDateTime.class)))
+                .thenReturn(List.of(content));
+        when(contentRepository.takeOverStaleSend(eq(10L), eq(ContentStatus.SENDING), any(LocalDateTime.class),
+                eq("node-a"), any(LocalDateTime.class))).thenReturn(1);
+        when(outboxService.isEnabled()).thenReturn(false);
+        when(audienceReader.forContent(content)).thenReturn(handler -> 0);
+        when(dispatchPipeline.submit(any(DispatchJob.class))).thenReturn(new CompletableFuture<>());
+
+        // Act
+        schedulerService.resumeStaleSends();
+
+        // Assert
+        verify(dispatchPipeline).submit(any(DispatchJob.class));
+    }
+
+    @Test
+    void resumeStaleSends_StaleSendTakenOverElsewhere_LeavesIt() {
+        // Arrange
+        content.setStatus(ContentStatus.SENDING);
+        when(nodeIdentity.getNodeId()).thenReturn("node-a");
+        when(leaderElection.isLeader()).thenReturn(true);
+        when(contentRepository.findStaleSends(eq(ContentStatus.SENDING), any(LocalDateTime.class)))
+                .thenReturn(List.of(content));
+        when(contentRepository.takeOverStaleSend(eq(10L), eq(ContentStatus.SENDING), any(LocalDateTime.class),
+                eq("node-a"), any(LocalDateTime.class))).thenReturn(0);
+
+        // Act
+        schedulerService.resumeStaleSends();
+
+        // Assert
+        verifyNoInteractions(dispatchPipeline);
+    }
+
+    @Test
+    void resumeStaleSends_NotLeader_LeavesThem() {
+        // Arrange
+        when(leaderElection.isLeader()).thenReturn(false);
+
+        // Act
+        schedulerService.resumeStaleSends();
+
+        // Assert
+        verify(contentRepository, never()).findStaleSends(any(), any());
+    }
+
+    @Test
+    void onLeadershipAcquired_PreviousLeaderWasSending_ResumesItsSends() {
+        // Arrange
+        content.setStatus(ContentStatus.SENDING);
+        content.setClaimedBy("node-b");
+        when(nodeIdentity.getNodeId()).thenReturn("node-a");
+        when(contentRepository.findStaleSendsClaimedBy(eq(ContentStatus.SENDING), eq("node-b"),
+                any(LocalDateTime.class))).thenReturn(List.of(content));
+        when(contentRepository.takeOverStaleSend(eq(10L), eq(ContentStatus.SENDING), any(LocalDateTime.class),
+                eq("node-a"), any(LocalDateTime.class))).thenReturn(1);
+        when(outboxService.isEnabled()).thenReturn(true);
+
+        // Act
+        schedulerService.onLeadershipAcquired(new LeadershipAcquiredEvent("node-b"));
+
+        // Assert
+        verify(outboxService).enqueue(content);
+    }
+
+    @Test
+    void onLeadershipAcquired_NoPreviousLeader_ResumesNothing() {
+        // Act
+        schedulerService.onLeadershipAcquired(new LeadershipAcquiredEvent(null));
+
+        // Assert
+        verifyNoInteractions(contentRepository);
+    }
+
+    @Test
+    void renewHeartbeats_LocalSendInFlight_RenewsIt() {
+        // Arrange
+        claimSucceeds();
+        when(outboxService.isEnabled()).thenReturn(false);
+        when(audienceReader.forContent(content)).thenReturn(handler -> 0);
+        when(dispatchPipeline.submit(any(DispatchJob.class))).thenReturn(new CompletableFuture<>());
+        schedulerService.sendNewsletterToSubscribers(content);
+
+        // Act
+        schedulerService.renewHeartbeats();
+
+        // Assert
+        verify(contentRepository).renewHeartbeats(eq(List.of(10L)), eq(ContentStatus.SENDING), eq("node-a"),
+                any(LocalDateTime.class));
+    }
+
+    private void claimSucceeds() {
+        when(nodeIdentity.getNodeId()).thenReturn("node-a");
+        when(contentRepository.claimForSending(eq(10L), eq(ContentStatus.SCHEDULED), eq(ContentStatus.SENDING),
+                eq("node-a"), any(LocalDateTime.class))).thenReturn(1);
+    }
+}
@@ -0,0 +1,163 @@
+package com.newsletter.service;
+
+import com.newsletter.model.Content;
+import com.newsletter.model.Content.ContentStatus;
+import com.newsletter.model.Topic;
+import com.newsletter.repository.ContentRepository;
+import com.newsletter.repository.TopicRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "newsletter.outbox.enabled=true")
+@ActiveProfiles("test")
+class OutboxIntegrationTest {
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private ContentService contentService;
+
+    @Autowired
+    private ContentRepository contentRepository;
+
+    @Autowired
+    private TopicRepository topicRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Topic topic;
+
+    @BeforeEach
+    void setUp() {
+        topic = new Topic();
+        topic.setName("Outbox " + System.nanoTime());
+        topic = topicRepository.save(topic);
+    }
+
+    @AfterEach
+    void tearDown() {
+        contentRepository.deleteAll(contentRepository.findByTopicId(topic.getId()));
+        topicRepository.deleteById(topic.getId());
+    }
+
+    @Test
+    void poll_LocalTimeContentOnLastBucket_LeavesItSending() {
+        // Arrange
+        Content content = sendingContent();
+        content.setLocalDelivery(true);
+        content.setBucketCursor(-36000);
+        content = contentRepository.save(content);
+
+        // Act
+        outboxService.poll();
+
+        // Assert
+        assertEquals(ContentStatus.SENDING, contentRepository.findById(content.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void poll_LocalTimeContentBetweenBuckets_LeavesItScheduled() {
+        // Arrange
+        Content local = sendingContent();
+        local.setStatus(ContentStatus.SCHEDULED);
+        local.setLocalDelivery(true);
+        local.setBucketCursor(3600);
+        Content content = contentRepository.save(local);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> outboxService.enqueueBucket(
+                contentRepository.findByIdWithTopic(content.getId()).orElseThrow(), handler -> 0));
+
+        // Act
+        outboxService.poll();
+
+        // Assert
+        Content polled = contentRepository.findById(content.getId()).orElseThrow();
+        assertEquals(ContentStatus.SCHEDULED, polled.getStatus());
+        assertTrue(polled.getViaOutbox());
+    }
+
+    @Test
+    void poll_ContentNotEnqueued_LeavesItSending() {
+        // Arrange
+        Content content = contentRepository.save(sendingContent());
+
+        // Act
+        outboxService.poll();
+
+        // Assert
+        Content polled = contentRepository.findById(content.getId()).orElseThrow();
+        assertEquals(ContentStatus.SENDING, polled.getStatus());
+        assertNull(polled.getSentAt());
+    }
+
+    @Test
+    void poll_EnqueuedContentWithNoJobsLeft_CompletesIt() {
+        // Arrange
+        Content content = contentRepository.save(sendingContent());
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                outboxService.enqueue(contentRepository.findByIdWithTopic(content.getId()).orElseThrow()));
+
+        // Act
+        outboxService.poll();
+
+        // Assert
+        Content completed = contentRepository.findById(content.getId()).orElseThrow();
+        assertEquals(ContentStatus.SENT, completed.getStatus());
+        assertFalse(completed.getViaOutbox());
+    }
+
+    @Test
+    void poll_PacedContentWithNoJobsLeft_CompletesIt() {
+        // Arrange
+        Content paced = sendingContent();
+        paced.setSendWindowMinutes(45);
+        Content content = contentRepository.save(paced);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                outboxService.enqueue(contentRepository.findByIdWithTopic(content.getId()).orElseThrow()));
+
+        // Act
+        outboxService.poll();
+
+        // Assert
+        Content completed = contentRepository.findById(content.getId()).orElseThrow();
+        assertEquals(ContentStatus.SENT, completed.getStatus());
+        assertNotNull(completed.getSentAt());
+    }
+
+    @Test
+    void completeDispatch_ContentNoLongerSending_LeavesItsStatus() {
+        // Arrange
+        Content failed = sendingContent();
+        failed.setStatus(ContentStatus.FAILED);
+        Content content = contentRepository.save(failed);
+
+        // Act
+        contentService.completeDispatch(new DispatchResult(content.getId(), 5L, 0L, 0L));
+
+        // Assert
+        Content completed = contentRepository.findById(content.getId()).orElseThrow();
+        assertEquals(ContentStatus.FAILED, completed.getStatus());
+        assertNull(completed.getSentAt());
+    }
+
+    private Content sendingContent() {
+        Content content = new Content();
+        content.setSubject("Weekly Update");
+        content.setBody("News");
+        content.setTopic(topic);
+        content.setScheduledTime(LocalDateTime.now().minusMinutes(1));
+        content.setStatus(ContentStatus.SENDING);
+        return content;
+    }
+}
@@ -0,0 +1,66 @@
+package com.newsletter.service;
+
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.InternetAddress;
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
+import org.junit.jupiter.api.Test;
+
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryPolicyTest {
+
+    private final RetryPolicy retryPolicy = new RetryPolicy(3, 1000, 10_000);
+
+    @Test
+    void isTransient_Smtp4xx_ReturnsTrue() throws Exception {
+        // Arrange
+        SMTPAddressFailedException error = new SMTPAddressFailedException(
+                new InternetAddress("john@example.com"), "RCPT TO", 452, "mailbox full");
+
+        // Act & Assert
+        assertTrue(retryPolicy.isTransient(new MessagingException("send failed", error)));
+    }
+
+    @Test
+    void isTransient_Smtp5xx_ReturnsFalse() throws Exception {
+        // Arrange
+        SMTPAddressFailedException error = new SMTPAddressFailedException(
+                new InternetAddress("john@example.com"), "RCPT TO", 550, "no such user");
+
+        // Act & Assert
+        assertFalse(retryPolicy.isTransient(error));
+    }
+
+    @Test
+    void isTransient_ConnectionErrorOrBadCredentials_ClassifiedByCause() {
+        // Act & Assert
+        assertTrue(retryPolicy.isTransient(new MessagingException("timeout", new SocketTimeoutException())));
+        assertFalse(retryPolicy.isTransient(new AuthenticationFailedException("535 bad credentials")));
+    }
+
+    @Test
+    void canRetry_StopsAtMaxAttempts() {
+        // Act & Assert
+        assertTrue(retryPolicy.canRetry(2));
+        assertFalse(retryPolicy.canRetry(3));
+    }
+
+    @Test
+    void backoff_GrowsExponentiallyWithJitterUpToCap() {
+        // Act & Assert
+        for (int i = 0; i < 100; i++) {
+            assertBetween(retryPolicy.backoff(1), 500, 1000);
+            assertBetween(retryPolicy.backoff(3), 2000, 4000);
+            assertBetween(retryPolicy.backoff(10), 5000, 10_000);
+        }
+    }
+
+    private void assertBetween(Duration actual, long minMillis, long maxMillis) {
+        assertTrue(actual.toMillis() >= minMillis && actual.toMillis() <= maxMillis,
+                "backoff " + actual.toMillis() + "ms outside [" + minMillis + ", " + maxMillis + "]");
+    }
+}
@@ -0,0 +1,69 @@
+package com.newsletter.service;
+
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentExpressionTest {
+
+    private final Map<String, Roaring64NavigableMap> bitmaps = new HashMap<>();
+    private final Roaring64NavigableMap universe = Roaring64NavigableMap.bitmapOf(1, 2, 3, 4, 5, 6);
+
+    @Test
+    void evaluate_AndOrNotWithPrecedence() {
+        // Arrange
+        bitmaps.put("locale:en", Roaring64NavigableMap.bitmapOf(1, 2, 3, 4));
+        bitmaps.put("tier:high", Roaring64NavigableMap.bitmapOf(1, 5));
+        bitmaps.put("tag:beta", Roaring64NavigableMap.bitmapOf(2, 6));
+        bitmaps.put("signup:2024-01", Roaring64NavigableMap.bitmapOf(2));
+        SegmentExpression segment = SegmentExpression.parse(
+                "locale:EN and (tier:high OR tag:beta) AND NOT signup:2024-01");
+
+        // Act
+        Roaring64NavigableMap result = segment.evaluate(this::lookup, universe);
+
+        // Assert
+        assertEquals(Roaring64NavigableMap.bitmapOf(1), result);
+        assertEquals(Roaring64NavigableMap.bitmapOf(1, 2, 3, 4), bitmaps.get("locale:en"));
+    }
+
+    @Test
+    void evaluate_UnknownValue_MatchesNobody() {
+        // Arrange
+        SegmentExpression segment = SegmentExpression.parse("NOT tag:nobody-has-this");
+
+        // Act
+        Roaring64NavigableMap result = segment.evaluate(this::lookup, universe);
+
+        // Assert
+        assertEquals(universe, result);
+    }
+
+    @Test
+    void canonical_NormalizesCaseAndParentheses() {
+        // Act & Assert
+        assertEquals("locale:pt-br AND (tier:low OR NOT tag:vip)",
+                SegmentExpression.canonical("(Locale:pt_BR) and (TIER:Low or not tag:VIP)"));
+        assertNull(SegmentExpression.canonical("  "));
+    }
+
+    @Test
+    void parse_InvalidExpressions_ThrowIllegalArgumentException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> SegmentExpression.parse("country:fr"));
+        assertThrows(IllegalArgumentException.class, () -> SegmentExpression.parse("tier:platinum"));
+        assertThrows(IllegalArgumentException.class, () -> SegmentExpression.parse("signup:2024-13"));
+        assertThrows(IllegalArgumentException.class, () -> SegmentExpression.parse("locale:en AND"));
+        assertThrows(IllegalArgumentException.class, () -> SegmentExpression.parse("(tag:beta"));
+        assertThrows(IllegalArgumentException.class, () -> SegmentExpression.parse("tag:beta tag:vip"));
+        assertThrows(IllegalArgumentException.class, () -> SegmentExpression.parse("beta"));
+    }
+
+    private Roaring64NavigableMap lookup(String key) {
+        return bitmaps.getOrDefault(key, new Roaring64NavigableMap());
+    }
+}
@@ -0,0 +1,121 @@
+package com.newsletter.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SendPacerTest {
+
+    private static final long START = 1_000_000L;
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void reserve_FixedRate_SpacesMessagesEvenly() {
+        // Arrange
+        SendPacer pacer = SendPacer.perHour(36_000);
+
+        // Act
+        long first = pacer.reserve(START);
+        long second = pacer.reserve(START);
+        long third = pacer.reserve(START);
+
+        // Assert
+        assertEquals(0L, first);
+        assertEquals(100L, TimeUnit.NANOSECONDS.toMillis(second));
+        assertEquals(200L, TimeUnit.NANOSECONDS.toMillis(third));
+    }
+
+    @Test
+    void reserve_AfterIdlePause_BurstsAtMostOneSecondOfTokens() {
+        // Arrange
+        SendPacer pacer = SendPacer.perHour(36_000);
+        pacer.reserve(START);
+
+        // Act
+        long later = START + 10 * SECOND;
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0L, pacer.reserve(later));
+        }
+        long eleventh = pacer.reserve(later);
+
+        // Assert
+        assertEquals(100L, TimeUnit.NANOSECONDS.toMillis(eleventh));
+    }
+
+    @Test
+    void reserve_SpreadOverWindow_StartsAtAudienceOverWindow() {
+        // Arrange
+        SendPacer pacer = SendPacer.spread(600, Duration.ofMinutes(1), null);
+
+        // Act
+        long first = pacer.reserve(START);
+
+        // Assert
+        assertEquals(0L, first);
+        assertEquals(10d, pacer.rate(), 1e-9);
+    }
+
+    @Test
+    void reserve_SendFellBehind_RaisesRateToFinishInWindow() {
+        // Arrange
+        SendPacer pacer = SendPacer.spread(600, Duration.ofMinutes(1), null);
+        pacer.reserve(START);
+
+        // Act
+        pacer.reserve(START + 30 * SECOND);
+
+        // Assert
+        assertEquals(599d / 30d, pacer.rate(), 1e-9);
+    }
+
+    @Test
+    void reserve_WindowPassed_ReleasesTheRestAtOnce() {
+        // Arrange
+        SendPacer pacer = SendPacer.spread(10, Duration.ofSeconds(1), null);
+        pacer.reserve(START);
+
+        // Act
+        long afterWindow = START + 2 * SECOND;
+        long first = pacer.reserve(afterWindow);
+        long second = pacer.reserve(afterWindow);
+
+        // Assert
+        assertEquals(0L, first);
+        assertEquals(0L, second);
+        assertEquals(Double.POSITIVE_INFINITY, pacer.rate());
+    }
+
+    @Test
+    void reserve_QuotaSlowerThanWindow_WaitsForQuota() {
+        // Arrange
+        SendPacer quota = SendPacer.perHour(3600);
+        SendPacer pacer = SendPacer.spread(600, Duration.ofMinutes(1), quota);
+
+        // Act
+        long first = pacer.reserve(START);
+        long second = pacer.reserve(START);
+
+        // Assert
+        assertEquals(0L, first);
+        assertEquals(1000L, TimeUnit.NANOSECONDS.toMillis(second));
+    }
+
+    @Test
+    void reserve_Unlimited_NeverWaits() {
+        // Act & Assert
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(0L, SendPacer.UNLIMITED.reserve(START));
+        }
+    }
+
+    @Test
+    void create_InvalidSettings_Throws() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> SendPacer.perHour(0));
+        assertThrows(IllegalArgumentException.class, () -> SendPacer.spread(0, Duration.ofMinutes(1), null));
+        assertThrows(IllegalArgumentException.class, () -> SendPacer.spread(100, Duration.ZERO, null));
+    }
+}
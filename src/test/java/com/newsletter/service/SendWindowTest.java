@@ -0,0 +1,63 @@
+package com.newsletter.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SendWindowTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 3, 10, 9, 0);
+    private static final SendWindow TEN_MINUTES = new SendWindow(START, Duration.ofMinutes(10));
+
+    @Test
+    void claimable_AtStart_ReleasesTheFirstSecondsWorth() {
+        // Act
+        long claimable = TEN_MINUTES.claimable(600, 0, START);
+
+        // Assert
+        assertEquals(1L, claimable);
+    }
+
+    @Test
+    void claimable_BehindSchedule_CatchesUpOneSecondAtATime() {
+        // Act
+        long claimable = TEN_MINUTES.claimable(600, 0, START.plusMinutes(5));
+
+        // Assert
+        assertEquals(2L, claimable);
+    }
+
+    @Test
+    void claimable_AheadOfSchedule_WaitsForTheNextRelease() {
+        // Arrange
+        LocalDateTime halfway = START.plusMinutes(5);
+
+        // Act
+        long claimable = TEN_MINUTES.claimable(290, 310, halfway);
+        Duration wait = TEN_MINUTES.untilNext(290, 310, halfway);
+
+        // Assert
+        assertEquals(0L, claimable);
+        assertEquals(Duration.ofSeconds(10), wait);
+        assertEquals(1L, TEN_MINUTES.claimable(290, 310, halfway.plus(wait)));
+    }
+
+    @Test
+    void claimable_WindowPassed_ReleasesEverythingLeft() {
+        // Act
+        long claimable = TEN_MINUTES.claimable(250, 350, START.plusMinutes(11));
+
+        // Assert
+        assertEquals(250L, claimable);
+        assertEquals(Duration.ZERO, TEN_MINUTES.untilNext(250, 350, START.plusMinutes(11)));
+    }
+
+    @Test
+    void create_EmptyWindow_Throws() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new SendWindow(START, Duration.ZERO));
+    }
+}
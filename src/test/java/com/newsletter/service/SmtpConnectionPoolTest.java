@@ -0,0 +1,88 @@
+package com.newsletter.service;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SmtpConnectionPoolTest {
+
+    @Mock
+    private JavaMailSenderImpl mailSender;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private Transport firstTransport;
+
+    @Mock
+    private Transport secondTransport;
+
+    @Mock
+    private MimeMessage message;
+
+    private SmtpConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(mailSender.getSession()).thenReturn(session);
+        when(session.getTransport("smtp")).thenReturn(firstTransport, secondTransport);
+        pool = new SmtpConnectionPool(mailSender, 1, 100, 60000);
+    }
+
+    @Test
+    void send_RecipientRejected_KeepsConnection() throws Exception {
+        // Arrange
+        doThrow(new SendFailedException("550 No such user")).doNothing()
+                .when(firstTransport).sendMessage(any(), any());
+        when(firstTransport.isConnected()).thenReturn(true);
+
+        // Act
+        assertThrows(SendFailedException.class, () -> pool.send(message));
+        pool.send(message);
+
+        // Assert
+        verify(session, times(1)).getTransport("smtp");
+        verify(firstTransport, times(2)).sendMessage(any(), any());
+        verify(firstTransport, never()).close();
+    }
+
+    @Test
+    void send_PooledConnectionWentStale_RetriesOnNewConnection() throws Exception {
+        // Arrange
+        doNothing().doThrow(new MessagingException("Connection reset"))
+                .when(firstTransport).sendMessage(any(), any());
+
+        // Act
+        pool.send(message);
+        pool.send(message);
+
+        // Assert
+        verify(firstTransport).close();
+        verify(secondTransport).sendMessage(any(), any());
+    }
+
+    @Test
+    void send_NewConnectionFails_ReportsFailureWithoutRetry() throws Exception {
+        // Arrange
+        doThrow(new MessagingException("Connection reset")).when(firstTransport).sendMessage(any(), any());
+
+        // Act & Assert
+        assertThrows(MessagingException.class, () -> pool.send(message));
+        verify(firstTransport).close();
+        verify(session, times(1)).getTransport("smtp");
+    }
+}
@@ -1,5 +1,6 @@
 package com.newsletter.service;
 
+import com.newsletter.dto.CursorPage;
 import com.newsletter.dto.SubscriberDTO;
 import com.newsletter.model.Subscriber;
 import com.newsletter.model.Topic;
@@ -10,14 +11,17 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 
 import java.util.Arrays;
-import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +33,18 @@ class SubscriberServiceTest {
     @Mock
     private TopicRepository topicRepository;
 
+    @Mock
+    private TopicCache topicCache;
+
+    @Mock
+    private InvalidationBus invalidationBus;
+
+    @Mock
+    private UnsubscribeTokens unsubscribeTokens;
+
+    @Spy
+    private CursorPager cursorPager = new CursorPager(50, 200);
+
     @InjectMocks
     private SubscriberService subscriberService;
 
@@ -58,7 +74,8 @@ class SubscriberServiceTest {
     @Test
     void createSubscriber_Success() {
         // Arrange
-        when(topicRepository.findById(1L)).thenReturn(Optional.of(testTopic));
+        when(topicCache.findById(1L)).thenReturn(Optional.of(new TopicCache.CachedTopic(1L, "Technology", null)));
+        when(topicRepository.getReferenceById(1L)).thenReturn(testTopic);
         when(subscriberRepository.existsByEmailAndTopic("john@example.com", testTopic)).thenReturn(false);
         when(subscriberRepository.save(any(Subscriber.class))).thenReturn(testSubscriber);
 
@@ -72,12 +89,14 @@ class SubscriberServiceTest {
         assertEquals(1L, result.getTopicId());
         assertTrue(result.getActive());
         verify(subscriberRepository, times(1)).save(any(Subscriber.class));
+        verify(invalidationBus).publish(InvalidationBus.SUBSCRIBER, 1L);
     }
 
     @Test
     void createSubscriber_DuplicateEmail_ThrowsException() {
         // Arrange
-        when(topicRepository.findById(1L)).thenReturn(Optional.of(testTopic));
+        when(topicCache.findById(1L)).thenReturn(Optional.of(new TopicCache.CachedTopic(1L, "Technology", null)));
+        when(topicRepository.getReferenceById(1L)).thenReturn(testTopic);
         when(subscriberRepository.existsByEmailAndTopic("john@example.com", testTopic)).thenReturn(true);
 
         // Act & Assert
@@ -93,7 +112,7 @@ class SubscriberServiceTest {
     @Test
     void createSubscriber_TopicNotFound_ThrowsException() {
         // Arrange
-        when(topicRepository.findById(999L)).thenReturn(Optional.empty());
+        when(topicCache.findById(999L)).thenReturn(Optional.empty());
         testSubscriberDTO.setTopicId(999L);
 
         // Act & Assert
@@ -108,29 +127,28 @@ class SubscriberServiceTest {
     @Test
     void getAllSubscribers_Success() {
         // Arrange
-        Subscriber subscriber2 = new Subscriber();
-        subscriber2.setId(2L);
-        subscriber2.setName("Jane Smith");
-        subscriber2.setEmail("jane@example.com");
-        subscriber2.setTopic(testTopic);
-        subscriber2.setActive(true);
+        SubscriberDTO subscriber1 = new SubscriberDTO(1L, "John Doe", "john@example.com", 1L, "Technology", true);
+        SubscriberDTO subscriber2 = new SubscriberDTO(2L, "Jane Smith", "jane@example.com", 1L, "Technology", true);
 
-        when(subscriberRepository.findAll()).thenReturn(Arrays.asList(testSubscriber, subscriber2));
+        when(subscriberRepository.findPageBefore(eq(Long.MAX_VALUE), isNull(), isNull(), isNull(), isNull(),
+                any(Pageable.class)))
+                .thenReturn(Arrays.asList(subscriber2, subscriber1));
 
         // Act
-        List<SubscriberDTO> result = subscriberService.getAllSubscribers();
+        CursorPage<SubscriberDTO> result = subscriberService.getSubscribers(null, null, null, null, null, null);
 
         // Assert
         assertNotNull(result);
-        assertEquals(2, result.size());
-        assertEquals("John Doe", result.get(0).getName());
-        assertEquals("Jane Smith", result.get(1).getName());
+        assertEquals(2, result.items().size());
+        assertEquals("Jane Smith", result.items().get(0).getName());
+        assertEquals("John Doe", result.items().get(1).getName());
+        assertNull(result.nextCursor());
     }
 
     @Test
     void getSubscriberById_Success() {
         // Arrange
-        when(subscriberRepository.findById(1L)).thenReturn(Optional.of(testSubscriber));
+        when(subscriberRepository.findByIdWithTopic(1L)).thenReturn(Optional.of(testSubscriber));
 
         // Act
         SubscriberDTO result = subscriberService.getSubscriberById(1L);
@@ -144,17 +162,19 @@ class SubscriberServiceTest {
     @Test
     void getSubscribersByTopicId_Success() {
         // Arrange
-        when(topicRepository.findById(1L)).thenReturn(Optional.of(testTopic));
-        when(subscriberRepository.findByTopicAndActiveTrue(testTopic))
-            .thenReturn(Arrays.asList(testSubscriber));
+        when(topicCache.findById(1L)).thenReturn(Optional.of(new TopicCache.CachedTopic(1L, "Technology", null)));
+        when(subscriberRepository.findPageBefore(eq(Long.MAX_VALUE), eq(1L), eq(true), isNull(), isNull(),
+                any(Pageable.class)))
+            .thenReturn(Arrays.asList(
+                    new SubscriberDTO(1L, "John Doe", "john@example.com", 1L, "Technology", true)));
 
         // Act
-        List<SubscriberDTO> result = subscriberService.getSubscribersByTopicId(1L);
+        CursorPage<SubscriberDTO> result = subscriberService.getSubscribersByTopicId(1L, null, null);
 
         // Assert
         assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals("John Doe", result.get(0).getName());
+        assertEquals(1, result.items().size());
+        assertEquals("John Doe", result.items().get(0).getName());
     }
 
     @Test
@@ -172,6 +192,31 @@ class SubscriberServiceTest {
         ));
     }
 
+    @Test
+    void unsubscribeWithToken_ValidToken_DeactivatesSubscriber() {
+        // Arrange
+        when(unsubscribeTokens.verify("signed")).thenReturn(1L);
+        when(subscriberRepository.findById(1L)).thenReturn(Optional.of(testSubscriber));
+        when(subscriberRepository.save(any(Subscriber.class))).thenReturn(testSubscriber);
+
+        // Act
+        subscriberService.unsubscribeWithToken("signed");
+
+        // Assert
+        verify(subscriberRepository).save(argThat(subscriber -> !subscriber.getActive()));
+        verify(invalidationBus).publish(InvalidationBus.SUBSCRIBER, 1L);
+    }
+
+    @Test
+    void unsubscribeWithToken_InvalidToken_ThrowsException() {
+        // Arrange
+        when(unsubscribeTokens.verify("forged")).thenThrow(new IllegalArgumentException("Invalid unsubscribe link"));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> subscriberService.unsubscribeWithToken("forged"));
+        verify(subscriberRepository, never()).save(any(Subscriber.class));
+    }
+
     @Test
     void deleteSubscriber_Success() {
         // Arrange
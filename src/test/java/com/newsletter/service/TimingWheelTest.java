@@ -0,0 +1,109 @@
+package com.newsletter.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    private static final long START = 1_000_000L;
+
+    private TimingWheel<Long> wheel;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new TimingWheel<>(100, 8, START);
+    }
+
+    @Test
+    void advance_BeforeDeadline_ReturnsNothing() {
+        // Arrange
+        wheel.schedule(1L, START + 550);
+
+        // Act
+        List<Long> expired = wheel.advance(START + 500);
+
+        // Assert
+        assertTrue(expired.isEmpty());
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void advance_PastDeadline_ExpiresKeyOnce() {
+        // Arrange
+        wheel.schedule(1L, START + 550);
+
+        // Act
+        List<Long> first = wheel.advance(START + 600);
+        List<Long> second = wheel.advance(START + 700);
+
+        // Assert
+        assertEquals(List.of(1L), first);
+        assertTrue(second.isEmpty());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_DeadlineSeveralRevolutionsAway_WaitsForItsRound() {
+        // Arrange: 8 slots of 100ms, so 2500ms is more than three revolutions out
+        wheel.schedule(1L, START + 2_500);
+
+        // Act & Assert
+        assertTrue(wheel.advance(START + 900).isEmpty());
+        assertTrue(wheel.advance(START + 1_700).isEmpty());
+        assertEquals(List.of(1L), wheel.advance(START + 2_500));
+    }
+
+    @Test
+    void advance_LargeJump_ExpiresEverythingDue() {
+        // Arrange
+        wheel.schedule(1L, START + 150);
+        wheel.schedule(2L, START + 5_000);
+        wheel.schedule(3L, START + 50_000);
+
+        // Act
+        List<Long> expired = wheel.advance(START + 10_000);
+
+        // Assert
+        assertEquals(2, expired.size());
+        assertTrue(expired.containsAll(List.of(1L, 2L)));
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void schedule_SameKeyAgain_ReplacesDeadline() {
+        // Arrange
+        wheel.schedule(1L, START + 200);
+        wheel.schedule(1L, START + 900);
+
+        // Act & Assert
+        assertTrue(wheel.advance(START + 500).isEmpty());
+        assertEquals(List.of(1L), wheel.advance(START + 900));
+    }
+
+    @Test
+    void cancel_RemovesPendingKey() {
+        // Arrange
+        wheel.schedule(1L, START + 200);
+
+        // Act
+        boolean cancelled = wheel.cancel(1L);
+
+        // Assert
+        assertTrue(cancelled);
+        assertTrue(wheel.advance(START + 1_000).isEmpty());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void schedule_DeadlineInPast_ExpiresOnNextTick() {
+        // Act
+        wheel.schedule(1L, START - 5_000);
+
+        // Assert
+        assertEquals(List.of(1L), wheel.advance(START + 100));
+    }
+}
@@ -0,0 +1,79 @@
+package com.newsletter.service;
+
+import com.newsletter.dto.Recipient;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopicAudienceTest {
+
+    @Test
+    void after_PagesInIdOrder() {
+        // Arrange
+        TopicAudience audience = new TopicAudience(2);
+        for (long id = 1; id <= 40; id++) {
+            audience.put(id, "user" + id + "@example.com", "User " + id);
+        }
+
+        // Act
+        List<Recipient> first = audience.after(0L, 25);
+        List<Recipient> second = audience.after(first.get(first.size() - 1).subscriberId(), 25);
+
+        // Assert
+        assertEquals(40, audience.size());
+        assertEquals(25, first.size());
+        assertEquals(15, second.size());
+        assertEquals(1L, first.get(0).subscriberId());
+        assertEquals(26L, second.get(0).subscriberId());
+        assertEquals("user40@example.com", second.get(14).email());
+    }
+
+    @Test
+    void put_OlderIdAndExistingId_InsertsInPlaceAndReplaces() {
+        // Arrange
+        TopicAudience audience = new TopicAudience(16);
+        audience.put(1L, "a@example.com", "A");
+        audience.put(5L, "e@example.com", "E");
+
+        // Act
+        audience.put(3L, "c@example.com", "C");
+        audience.put(5L, "e2@example.com", "E2");
+
+        // Assert
+        List<Recipient> all = audience.after(0L, 10);
+        assertEquals(List.of(1L, 3L, 5L), all.stream().map(Recipient::subscriberId).toList());
+        assertEquals("e2@example.com", all.get(2).email());
+    }
+
+    @Test
+    void remove_PresentAndAbsentIds() {
+        // Arrange
+        TopicAudience audience = new TopicAudience(16);
+        audience.put(1L, "a@example.com", "A");
+        audience.put(2L, "b@example.com", "B");
+        audience.put(3L, "c@example.com", "C");
+
+        // Act & Assert
+        assertTrue(audience.remove(2L));
+        assertFalse(audience.remove(2L));
+        assertEquals(List.of(1L, 3L),
+                audience.after(0L, 10).stream().map(Recipient::subscriberId).toList());
+        assertTrue(audience.after(3L, 10).isEmpty());
+    }
+
+    @Test
+    void checksum_CountsIdsAndCodePoints() {
+        // Arrange
+        TopicAudience audience = new TopicAudience(16);
+        audience.put(2L, "ab@example.com", "Zo\u00eb");
+        audience.put(7L, "cd@example.com", "\ud83d\ude00");
+
+        // Act
+        AudienceChecksum checksum = audience.checksum();
+
+        // Assert
+        assertEquals(new AudienceChecksum(2L, 9L, 14L + 3L + 14L + 1L), checksum);
+    }
+}
@@ -0,0 +1,128 @@
+package com.newsletter.service;
+
+import com.newsletter.dto.CacheStatsDTO;
+import com.newsletter.model.Topic;
+import com.newsletter.repository.TopicRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TopicCacheTest {
+
+    @Mock
+    private TopicRepository topicRepository;
+
+    @Mock
+    private InvalidationBus invalidationBus;
+
+    private TopicCache topicCache;
+
+    @BeforeEach
+    void setUp() {
+        topicCache = new TopicCache(topicRepository, invalidationBus, 2, 60000);
+    }
+
+    @Test
+    void findById_SecondLookupIsServedFromCache() {
+        // Arrange
+        when(topicRepository.findById(1L)).thenReturn(Optional.of(topic(1L, "Technology")));
+
+        // Act
+        topicCache.findById(1L);
+        Optional<TopicCache.CachedTopic> result = topicCache.findById(1L);
+
+        // Assert
+        assertEquals("Technology", result.orElseThrow().name());
+        verify(topicRepository, times(1)).findById(1L);
+        CacheStatsDTO stats = topicCache.stats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+    }
+
+    @Test
+    void findByName_UsesEntriesLoadedById() {
+        // Arrange
+        when(topicRepository.findById(1L)).thenReturn(Optional.of(topic(1L, "Technology")));
+        topicCache.findById(1L);
+
+        // Act
+        Optional<TopicCache.CachedTopic> result = topicCache.findByName("Technology");
+
+        // Assert
+        assertEquals(1L, result.orElseThrow().id());
+        verify(topicRepository, never()).findByName("Technology");
+    }
+
+    @Test
+    void invalidate_ForcesReload() {
+        // Arrange
+        when(topicRepository.findById(1L))
+                .thenReturn(Optional.of(topic(1L, "Technology")))
+                .thenReturn(Optional.of(topic(1L, "Tech")));
+        topicCache.findById(1L);
+
+        // Act
+        topicCache.invalidate(1L);
+        Optional<TopicCache.CachedTopic> result = topicCache.findById(1L);
+
+        // Assert
+        assertEquals("Tech", result.orElseThrow().name());
+        assertTrue(topicCache.findByName("Tech").isPresent());
+        verify(topicRepository, never()).findByName("Tech");
+        verify(invalidationBus).publish(InvalidationBus.TOPIC, 1L);
+    }
+
+    @Test
+    void remoteInvalidation_EvictsEntry() {
+        // Arrange
+        ArgumentCaptor<InvalidationBus.Listener> listener = ArgumentCaptor.forClass(InvalidationBus.Listener.class);
+        verify(invalidationBus).subscribe(eq(InvalidationBus.TOPIC), listener.capture());
+        when(topicRepository.findById(1L)).thenReturn(Optional.of(topic(1L, "Technology")));
+        topicCache.findById(1L);
+
+        // Act
+        listener.getValue().invalidate(1L);
+        topicCache.findById(1L);
+
+        // Assert
+        verify(topicRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void capacity_EvictsLeastRecentlyUsed() {
+        // Arrange
+        for (long id = 1; id <= 3; id++) {
+            when(topicRepository.findById(id)).thenReturn(Optional.of(topic(id, "Topic " + id)));
+        }
+
+        // Act
+        topicCache.findById(1L);
+        topicCache.findById(2L);
+        topicCache.findById(1L);
+        topicCache.findById(3L);
+        topicCache.findById(2L);
+
+        // Assert
+        verify(topicRepository, times(1)).findById(1L);
+        verify(topicRepository, times(2)).findById(2L);
+        assertEquals(2, topicCache.stats().getSize());
+        assertEquals(2, topicCache.stats().getEvictions());
+    }
+
+    private static Topic topic(Long id, String name) {
+        Topic topic = new Topic();
+        topic.setId(id);
+        topic.setName(name);
+        return topic;
+    }
+}
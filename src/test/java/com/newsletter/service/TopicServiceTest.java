@@ -1,14 +1,18 @@
 package com.newsletter.service;
 
+import com.newsletter.dto.CursorPage;
 import com.newsletter.dto.TopicDTO;
 import com.newsletter.model.Topic;
+import com.newsletter.repository.ContentRepository;
 import com.newsletter.repository.TopicRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 
 import java.util.Arrays;
 import java.util.List;
@@ -16,6 +20,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,6 +29,18 @@ class TopicServiceTest {
     @Mock
     private TopicRepository topicRepository;
 
+    @Mock
+    private ContentRepository contentRepository;
+
+    @Mock
+    private TopicCache topicCache;
+
+    @Mock
+    private InvalidationBus invalidationBus;
+
+    @Spy
+    private CursorPager cursorPager = new CursorPager(50, 200);
+
     @InjectMocks
     private TopicService topicService;
 
@@ -45,7 +62,7 @@ class TopicServiceTest {
     @Test
     void createTopic_Success() {
         // Arrange
-        when(topicRepository.existsByName("Technology")).thenReturn(false);
+        when(topicCache.findByName("Technology")).thenReturn(Optional.empty());
         when(topicRepository.save(any(Topic.class))).thenReturn(testTopic);
 
         // Act
@@ -61,7 +78,8 @@ class TopicServiceTest {
     @Test
     void createTopic_DuplicateName_ThrowsException() {
         // Arrange
-        when(topicRepository.existsByName("Technology")).thenReturn(true);
+        when(topicCache.findByName("Technology"))
+                .thenReturn(Optional.of(new TopicCache.CachedTopic(1L, "Technology", "Tech news")));
 
         // Act & Assert
         IllegalArgumentException exception = assertThrows(
@@ -81,22 +99,57 @@ class TopicServiceTest {
         topic2.setName("Sports");
         topic2.setDescription("Sports news");
 
-        when(topicRepository.findAll()).thenReturn(Arrays.asList(testTopic, topic2));
+        when(topicRepository.findPageBefore(eq(Long.MAX_VALUE), any(Pageable.class)))
+                .thenReturn(Arrays.asList(topic2, testTopic));
 
         // Act
-        List<TopicDTO> result = topicService.getAllTopics();
+        CursorPage<TopicDTO> result = topicService.getTopics(null, null);
 
         // Assert
         assertNotNull(result);
-        assertEquals(2, result.size());
-        assertEquals("Technology", result.get(0).getName());
-        assertEquals("Sports", result.get(1).getName());
+        assertEquals(2, result.items().size());
+        assertEquals("Sports", result.items().get(0).getName());
+        assertEquals("Technology", result.items().get(1).getName());
+        assertNull(result.nextCursor());
+    }
+
+    @Test
+    void getTopics_MoreRowsThanLimit_ReturnsNextCursor() {
+        // Arrange
+        Topic topic2 = new Topic();
+        topic2.setId(2L);
+        topic2.setName("Sports");
+
+        when(topicRepository.findPageBefore(eq(Long.MAX_VALUE), any(Pageable.class)))
+                .thenReturn(Arrays.asList(topic2, testTopic));
+        when(topicRepository.findPageBefore(eq(2L), any(Pageable.class)))
+                .thenReturn(List.of(testTopic));
+
+        // Act
+        CursorPage<TopicDTO> first = topicService.getTopics(null, 1);
+        CursorPage<TopicDTO> second = topicService.getTopics(first.nextCursor(), 1);
+
+        // Assert
+        assertEquals(1, first.items().size());
+        assertEquals("Sports", first.items().get(0).getName());
+        assertNotNull(first.nextCursor());
+        assertEquals(1, second.items().size());
+        assertEquals("Technology", second.items().get(0).getName());
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    void getTopics_InvalidCursorOrLimit_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> topicService.getTopics("not-a-cursor", null));
+        assertThrows(IllegalArgumentException.class, () -> topicService.getTopics(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> topicService.getTopics(null, 201));
     }
 
     @Test
     void getTopicById_Success() {
         // Arrange
-        when(topicRepository.findById(1L)).thenReturn(Optional.of(testTopic));
+        when(topicCache.findById(1L))
+                .thenReturn(Optional.of(new TopicCache.CachedTopic(1L, "Technology", "Tech news")));
 
         // Act
         TopicDTO result = topicService.getTopicById(1L);
@@ -110,7 +163,7 @@ class TopicServiceTest {
     @Test
     void getTopicById_NotFound_ThrowsException() {
         // Arrange
-        when(topicRepository.findById(999L)).thenReturn(Optional.empty());
+        when(topicCache.findById(999L)).thenReturn(Optional.empty());
 
         // Act & Assert
         IllegalArgumentException exception = assertThrows(
@@ -138,6 +191,8 @@ class TopicServiceTest {
         // Assert
         assertNotNull(result);
         verify(topicRepository, times(1)).save(any(Topic.class));
+        verify(topicCache).invalidate(1L);
+        verifyNoInteractions(invalidationBus);
     }
 
     @Test
@@ -149,7 +204,10 @@ class TopicServiceTest {
         topicService.deleteTopic(1L);
 
         // Assert
+        verify(contentRepository).removeAdditionalTopic(1L);
         verify(topicRepository, times(1)).deleteById(1L);
+        verify(topicCache).invalidate(1L);
+        verify(invalidationBus).publish(InvalidationBus.AUDIENCE, 1L);
     }
 
     @Test
@@ -0,0 +1,68 @@
+package com.newsletter.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnsubscribeTokensTest {
+
+    private static final String SECRET = "test-unsubscribe-secret-0123456789";
+    private static final String BASE_URL = "https://news.example.com/api/subscribers";
+
+    private final UnsubscribeTokens tokens = new UnsubscribeTokens(SECRET, BASE_URL);
+
+    @Test
+    void verify_TokenItMade_ReturnsSubscriberId() {
+        // Act
+        long subscriberId = tokens.verify(tokens.token(42L));
+
+        // Assert
+        assertEquals(42L, subscriberId);
+    }
+
+    @Test
+    void url_PointsAtPublicUnsubscribeEndpoint() {
+        // Act
+        String url = tokens.url(42L);
+
+        // Assert
+        assertEquals(BASE_URL + "/unsubscribe?token=" + tokens.token(42L), url);
+        assertFalse(url.contains("/42/"));
+    }
+
+    @Test
+    void verify_TokenForAnotherIdWithSameSignature_Throws() {
+        // Arrange
+        byte[] forged = Base64.getUrlDecoder().decode(tokens.token(42L));
+        forged[7] = 43;
+        String tampered = Base64.getUrlEncoder().withoutPadding().encodeToString(forged);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> tokens.verify(tampered));
+    }
+
+    @Test
+    void verify_TokenSignedWithAnotherSecret_Throws() {
+        // Arrange
+        UnsubscribeTokens other = new UnsubscribeTokens("another-unsubscribe-secret-0123456789", BASE_URL);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> tokens.verify(other.token(42L)));
+    }
+
+    @Test
+    void verify_MalformedToken_Throws() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> tokens.verify("not a token"));
+        assertThrows(IllegalArgumentException.class, () -> tokens.verify(""));
+        assertThrows(IllegalArgumentException.class, () -> tokens.verify(null));
+    }
+
+    @Test
+    void create_ShortSecret_Throws() {
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> new UnsubscribeTokens("short", BASE_URL));
+    }
+}